@@ -5,12 +5,17 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
 import java.util.Arrays;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
@@ -23,29 +28,39 @@ import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import com.example.pubg.dto.MatchMeta;
-import com.example.pubg.util.SimpleRateLimiter;
+import com.example.pubg.util.PriorityRateLimiter;
+import com.example.pubg.util.RequestPriority;
+import com.example.pubg.util.SingleFlight;
 
 @Component
 public class PubgApiClient {
     private static final Logger log = LoggerFactory.getLogger(PubgApiClient.class);
 
     private final RestTemplate restTemplate;
-    private final SimpleRateLimiter rateLimiter;
-    private final Duration backoff;
+    private final PriorityRateLimiter rateLimiter;
+    private final Duration maxRateLimitWait;
     private final int defaultMatchCount;
     private final String shard;
     private final List<String> proAccounts;
+    private final ExecutorService apiExecutor;
+    private final PubgApiClient self;
+    private final SingleFlight<String, String> accountLookups = new SingleFlight<>();
+    private final SingleFlight<String, MatchMeta> matchLookups = new SingleFlight<>();
 
     public PubgApiClient(
             RestTemplate restTemplate,
-            SimpleRateLimiter rateLimiter,
-            @Value("${pubg.retry.backoff-ms}") long backoffMs,
+            PriorityRateLimiter rateLimiter,
+            @Qualifier("pubgApiExecutor") ExecutorService apiExecutor,
+            @Lazy PubgApiClient self,
+            @Value("${pubg.rate-limit.max-wait-ms:60000}") long maxWaitMs,
             @Value("${pubg.ingest.default-match-count}") int defaultMatchCount,
             @Value("${pubg.shard:kakao}") String shard,
             @Value("${pubg.pro.accounts:}") String proAccounts) {
         this.restTemplate = restTemplate;
         this.rateLimiter = rateLimiter;
-        this.backoff = Duration.ofMillis(backoffMs);
+        this.apiExecutor = apiExecutor;
+        this.self = self;
+        this.maxRateLimitWait = Duration.ofMillis(maxWaitMs);
         this.defaultMatchCount = defaultMatchCount;
         this.shard = shard;
         this.proAccounts = parseAccounts(proAccounts);
@@ -56,7 +71,7 @@ public class PubgApiClient {
             maxAttemptsExpression = "${pubg.retry.max-attempts}",
             backoff = @Backoff(delayExpression = "${pubg.retry.backoff-ms}"))
     public String findAccountId(String nickname) {
-        return executeWithRateLimit(() -> {
+        return accountLookups.execute(nickname, () -> executeWithRateLimit(() -> {
             String path = "/shards/" + shard + "/players?filter[playerNames]=" + nickname;
             ResponseEntity<Map> response = restTemplate.exchange(path, HttpMethod.GET, HttpEntity.EMPTY, Map.class);
             List<Map<String, Object>> data = (List<Map<String, Object>>) response.getBody().get("data");
@@ -65,15 +80,43 @@ public class PubgApiClient {
             }
             Map<String, Object> first = data.get(0);
             return (String) first.get("id");
-        });
+        }));
+    }
+
+    /**
+     * Looks up the player's recent match ids, then fetches every match's metadata concurrently. Each
+     * lookup goes through the proxy so it is retried and rate limited on its own, at the caller's priority;
+     * results keep the player's match order.
+     */
+    public List<MatchMeta> fetchRecentMatches(String accountId, Integer requestedCount) {
+        int count = Optional.ofNullable(requestedCount).orElse(defaultMatchCount);
+        List<String> matchIds = self.fetchRecentMatchIds(accountId, count);
+        RequestPriority priority = RequestPriority.current();
+        List<CompletableFuture<MatchMeta>> pending = new ArrayList<>();
+        for (String matchId : matchIds) {
+            pending.add(CompletableFuture.supplyAsync(
+                    () -> RequestPriority.call(priority, () -> self.fetchMatchMeta(matchId)), apiExecutor));
+        }
+        List<MatchMeta> metas = new ArrayList<>();
+        try {
+            for (CompletableFuture<MatchMeta> future : pending) {
+                metas.add(future.join());
+            }
+        } catch (CompletionException e) {
+            pending.forEach(future -> future.cancel(false));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new PubgApiException("Match metadata fetch failed for accountId=" + accountId, e.getCause());
+        }
+        return metas;
     }
 
     @Retryable(
             retryFor = {RestClientException.class},
             maxAttemptsExpression = "${pubg.retry.max-attempts}",
             backoff = @Backoff(delayExpression = "${pubg.retry.backoff-ms}"))
-    public List<MatchMeta> fetchRecentMatches(String accountId, Integer requestedCount) {
-        int count = Optional.ofNullable(requestedCount).orElse(defaultMatchCount);
+    public List<String> fetchRecentMatchIds(String accountId, int count) {
         return executeWithRateLimit(() -> {
             String path = "/shards/" + shard + "/players/" + accountId;
             ResponseEntity<Map> response = restTemplate.exchange(path, HttpMethod.GET, HttpEntity.EMPTY, Map.class);
@@ -81,42 +124,48 @@ public class PubgApiClient {
             Map<String, Object> relationships = (Map<String, Object>) data.get("relationships");
             Map<String, Object> matches = (Map<String, Object>) relationships.get("matches");
             List<Map<String, Object>> matchData = (List<Map<String, Object>>) matches.get("data");
-            List<MatchMeta> metas = new ArrayList<>();
-            for (int i = 0; i < Math.min(count, matchData.size()); i++) {
-                String matchId = (String) matchData.get(i).get("id");
-                metas.add(fetchMatchMeta(matchId));
-            }
-            return metas;
+            return matchData.stream()
+                    .limit(count)
+                    .map(match -> (String) match.get("id"))
+                    .toList();
         });
     }
 
+    /**
+     * Players of the same lobby share match ids, so concurrent lookups of one match are coalesced and
+     * take a single rate limit permit.
+     */
     @Retryable(
             retryFor = {RestClientException.class},
             maxAttemptsExpression = "${pubg.retry.max-attempts}",
             backoff = @Backoff(delayExpression = "${pubg.retry.backoff-ms}"))
     public MatchMeta fetchMatchMeta(String matchId) {
-        return executeWithRateLimit(() -> {
-            String path = "/shards/" + shard + "/matches/" + matchId;
-            ResponseEntity<Map> response = restTemplate.exchange(path, HttpMethod.GET, HttpEntity.EMPTY, Map.class);
-            Map<String, Object> data = (Map<String, Object>) response.getBody().get("data");
-            Map<String, Object> attributes = (Map<String, Object>) data.get("attributes");
-            String mode = (String) attributes.getOrDefault("gameMode", "squad");
-            Number duration = (Number) attributes.getOrDefault("duration", 0);
-
-            List<Map<String, Object>> included = (List<Map<String, Object>>) response.getBody().get("included");
-            String telemetryUrl = included.stream()
-                    .filter(it -> "asset".equals(it.get("type")))
-                    .map(it -> (Map<String, Object>) it.get("attributes"))
-                    .map(attr -> (String) attr.get("URL"))
-                    .findFirst()
-                    .orElseThrow(() -> new PubgApiException("Telemetry URL not found for match=" + matchId));
-            return new MatchMeta(matchId, telemetryUrl, mode, duration.longValue());
-        });
+        return matchLookups.execute(matchId, () -> executeWithRateLimit(() -> loadMatchMeta(matchId)));
+    }
+
+    private MatchMeta loadMatchMeta(String matchId) {
+        String path = "/shards/" + shard + "/matches/" + matchId;
+        ResponseEntity<Map> response = restTemplate.exchange(path, HttpMethod.GET, HttpEntity.EMPTY, Map.class);
+        Map<String, Object> data = (Map<String, Object>) response.getBody().get("data");
+        Map<String, Object> attributes = (Map<String, Object>) data.get("attributes");
+        String mode = (String) attributes.getOrDefault("gameMode", "squad");
+        Number duration = (Number) attributes.getOrDefault("duration", 0);
+
+        List<Map<String, Object>> included = (List<Map<String, Object>>) response.getBody().get("included");
+        String telemetryUrl = included.stream()
+                .filter(it -> "asset".equals(it.get("type")))
+                .map(it -> (Map<String, Object>) it.get("attributes"))
+                .map(attr -> (String) attr.get("URL"))
+                .findFirst()
+                .orElseThrow(() -> new PubgApiException("Telemetry URL not found for match=" + matchId));
+        return new MatchMeta(matchId, telemetryUrl, mode, duration.longValue());
     }
 
     private <T> T executeWithRateLimit(Supplier<T> supplier) {
         try {
-            rateLimiter.acquire(backoff);
+            if (!rateLimiter.acquire(maxRateLimitWait)) {
+                throw new PubgApiException("No rate limit permit within " + maxRateLimitWait.toMillis() + "ms");
+            }
             return supplier.get();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
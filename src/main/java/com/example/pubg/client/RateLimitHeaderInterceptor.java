@@ -0,0 +1,114 @@
+package com.example.pubg.client;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import com.example.pubg.util.RateLimiter;
+
+/**
+ * Feeds the rate limit headers of every PUBG API response back into the shared limiter. The remaining
+ * budget is spread evenly until the window resets (never faster than the configured rate), an exhausted
+ * window or a 429 pauses all callers until the reset, and responses without the headers are ignored.
+ */
+public class RateLimitHeaderInterceptor implements ClientHttpRequestInterceptor {
+    private static final Logger log = LoggerFactory.getLogger(RateLimitHeaderInterceptor.class);
+
+    static final String REMAINING = "X-RateLimit-Remaining";
+    static final String RESET = "X-RateLimit-Reset";
+
+    private final RateLimiter rateLimiter;
+    private final double maxPermitsPerSecond;
+
+    public RateLimitHeaderInterceptor(RateLimiter rateLimiter, double maxPermitsPerSecond) {
+        this.rateLimiter = rateLimiter;
+        this.maxPermitsPerSecond = maxPermitsPerSecond;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+        ClientHttpResponse response = execution.execute(request, body);
+        HttpHeaders headers = response.getHeaders();
+        Duration untilReset = untilReset(headers.getFirst(RESET));
+        if (response.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+            Duration pause = retryAfter(headers.getFirst(HttpHeaders.RETRY_AFTER));
+            pause = pause != null ? pause : untilReset;
+            if (pause != null) {
+                log.warn("PUBG API throttled {}; pausing requests for {}ms", request.getURI().getPath(),
+                        pause.toMillis());
+                rateLimiter.pauseFor(pause);
+            }
+            return response;
+        }
+        Long remaining = parseLong(headers.getFirst(REMAINING));
+        if (remaining == null || untilReset == null) {
+            return response;
+        }
+        if (remaining <= 0) {
+            log.debug("PUBG rate limit window exhausted; pausing requests for {}ms", untilReset.toMillis());
+            rateLimiter.pauseFor(untilReset);
+            rateLimiter.setRate(maxPermitsPerSecond);
+        } else {
+            double seconds = Math.max(1, untilReset.toMillis() / 1000.0);
+            rateLimiter.setRate(Math.min(maxPermitsPerSecond, remaining / seconds));
+        }
+        return response;
+    }
+
+    /**
+     * PUBG sends the reset as epoch seconds; small values are taken as seconds from now.
+     */
+    static Duration untilReset(String value) {
+        Long reset = parseLong(value);
+        if (reset == null) {
+            return null;
+        }
+        long now = Instant.now().getEpochSecond();
+        long seconds = reset > 1_000_000_000L ? reset - now : reset;
+        return Duration.ofSeconds(Math.max(0, seconds));
+    }
+
+    /**
+     * Retry-After is either delay seconds or an HTTP date.
+     */
+    static Duration retryAfter(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        Long seconds = parseLong(value);
+        if (seconds != null) {
+            return Duration.ofSeconds(Math.max(0, seconds));
+        }
+        try {
+            Instant at = ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            Duration pause = Duration.between(Instant.now(), at);
+            return pause.isNegative() ? Duration.ZERO : pause;
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
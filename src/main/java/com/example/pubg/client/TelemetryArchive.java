@@ -0,0 +1,397 @@
+package com.example.pubg.client;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Permanent local store of raw telemetry payloads, keyed by match id. Telemetry never changes once a
+ * match has ended, so a match is written once and kept.
+ * <p>
+ * A payload is deflated into a spool file while it downloads and then appended to a segment file as one
+ * record; the in-memory index is rebuilt on startup by walking the record headers. A damaged range is
+ * logged and skipped up to the next record header, and only the last segment, the one still appended to,
+ * has a torn tail cut off. Reads verify the record's checksum over the mapped pages and then inflate
+ * straight from them, so a reader holds buffers rather than the payload.
+ */
+@Component
+public class TelemetryArchive implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(TelemetryArchive.class);
+
+    private static final int RECORD_MAGIC = 0x50544152;
+    private static final int MAX_ID_BYTES = 256;
+    private static final String SEGMENT_PREFIX = "telemetry-";
+    // segments of parsed events (.pta) from before payloads were archived raw are left alone
+    private static final String SEGMENT_SUFFIX = ".ptj";
+    private static final String SPOOL_PREFIX = "spool-";
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final long segmentBytes;
+    private final Map<String, Location> index = new ConcurrentHashMap<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private Segment active;
+    private int nextSegmentNumber = 1;
+
+    public TelemetryArchive(
+            @Value("${pubg.archive.enabled:true}") boolean enabled,
+            @Value("${pubg.archive.dir:data/telemetry}") String directory,
+            @Value("${pubg.archive.segment-bytes:1073741824}") long segmentBytes) {
+        this.enabled = enabled;
+        this.directory = Path.of(directory);
+        // records are addressed with int offsets inside a mapping
+        this.segmentBytes = Math.min(segmentBytes, Integer.MAX_VALUE);
+        if (enabled && Files.isDirectory(this.directory)) {
+            try {
+                load();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open telemetry archive at " + this.directory, e);
+            }
+        }
+    }
+
+    /**
+     * Opens the archived payload of the match, or returns {@code null} if it has not been archived. The
+     * stream inflates from the mapped segment as it is read.
+     */
+    public InputStream open(String matchId) {
+        Location location = enabled ? index.get(matchId) : null;
+        if (location == null) {
+            return null;
+        }
+        try {
+            ByteBuffer block = location.segment().slice(location.offset(), location.length());
+            CRC32 crc = new CRC32();
+            crc.update(block.duplicate());
+            if ((int) crc.getValue() != location.crc()) {
+                throw new IOException("checksum mismatch");
+            }
+            return new PayloadStream(block);
+        } catch (IOException e) {
+            log.warn("Dropping unreadable archive entry for matchId={}", matchId, e);
+            index.remove(matchId, location);
+            return null;
+        }
+    }
+
+    /**
+     * Starts archiving the match's payload, or returns {@code null} if the archive is disabled or already
+     * holds the match.
+     */
+    public Writer writer(String matchId) throws IOException {
+        if (!enabled || index.containsKey(matchId)) {
+            return null;
+        }
+        Files.createDirectories(directory);
+        return new Writer(matchId, Files.createTempFile(directory, SPOOL_PREFIX, ".tmp"));
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        for (Segment segment : segments) {
+            segment.channel.close();
+        }
+    }
+
+    private Segment segmentFor(int recordBytes) throws IOException {
+        if (active == null || (active.size > 0 && active.size + recordBytes > segmentBytes)) {
+            Files.createDirectories(directory);
+            Path path = directory.resolve(String.format("%s%06d%s", SEGMENT_PREFIX, nextSegmentNumber++,
+                    SEGMENT_SUFFIX));
+            active = new Segment(path);
+            segments.add(active);
+        }
+        return active;
+    }
+
+    private void load() throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(p -> p.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                    && p.getFileName().toString().endsWith(SEGMENT_SUFFIX)).sorted().toList();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            // spools of downloads that never finished
+            for (Path spool : files.filter(p -> p.getFileName().toString().startsWith(SPOOL_PREFIX)).toList()) {
+                Files.deleteIfExists(spool);
+            }
+        }
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            Segment segment = new Segment(path);
+            segments.add(segment);
+            scan(segment, i == paths.size() - 1);
+            String name = path.getFileName().toString();
+            try {
+                int number = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(),
+                        name.length() - SEGMENT_SUFFIX.length()));
+                nextSegmentNumber = Math.max(nextSegmentNumber, number + 1);
+            } catch (NumberFormatException e) {
+                // not one of ours by name; it is still indexed and never appended to
+            }
+        }
+        active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        log.info("Telemetry archive at {} holds {} matches in {} segments", directory, index.size(), segments.size());
+    }
+
+    /**
+     * Indexes every complete record. Bytes that do not start a complete record are skipped up to the next
+     * one that does; if none follows, they are cut off in the last segment and left alone in older ones.
+     */
+    private void scan(Segment segment, boolean last) throws IOException {
+        if (segment.size == 0) {
+            return;
+        }
+        MappedByteBuffer mapped = segment.channel.map(FileChannel.MapMode.READ_ONLY, 0, segment.size);
+        int pos = 0;
+        int end = 0;
+        while (pos < mapped.limit()) {
+            int recordEnd = indexRecord(segment, mapped, pos);
+            if (recordEnd > 0) {
+                pos = recordEnd;
+                end = recordEnd;
+                continue;
+            }
+            int next = pos + 1;
+            int nextEnd = -1;
+            while (next < mapped.limit() && (nextEnd = indexRecord(segment, mapped, next)) < 0) {
+                next++;
+            }
+            if (nextEnd < 0) {
+                break;
+            }
+            log.warn("Skipping unreadable bytes {}..{} of {}", pos, next, segment.path);
+            pos = nextEnd;
+            end = nextEnd;
+        }
+        if (end < segment.size) {
+            if (last) {
+                log.warn("Truncating {} bytes of incomplete records from {}", segment.size - end, segment.path);
+                segment.channel.truncate(end);
+                segment.size = end;
+            } else {
+                log.warn("Ignoring unreadable bytes {}..{} of {}", end, segment.size, segment.path);
+            }
+        }
+    }
+
+    /**
+     * Indexes the record starting at {@code pos} and returns where it ends, or -1 if no complete record
+     * starts there.
+     */
+    private int indexRecord(Segment segment, MappedByteBuffer mapped, int pos) {
+        if (mapped.limit() - pos < 6 || mapped.getInt(pos) != RECORD_MAGIC) {
+            return -1;
+        }
+        int idLength = mapped.getShort(pos + 4) & 0xFFFF;
+        int blockHeader = pos + 6 + idLength;
+        if (idLength == 0 || idLength > MAX_ID_BYTES || mapped.limit() - blockHeader < 8) {
+            return -1;
+        }
+        int blockLength = mapped.getInt(blockHeader);
+        int blockOffset = blockHeader + 8;
+        if (blockLength < 0 || mapped.limit() - blockOffset < blockLength) {
+            return -1;
+        }
+        byte[] id = new byte[idLength];
+        mapped.get(pos + 6, id);
+        index.put(new String(id, StandardCharsets.UTF_8),
+                new Location(segment, blockOffset, blockLength, mapped.getInt(blockHeader + 4)));
+        return blockOffset + blockLength;
+    }
+
+    /**
+     * Deflates the bytes written to it into a spool file. {@link #commit()} appends them to the archive as
+     * one record; closing a writer that was not committed discards them.
+     */
+    public final class Writer extends OutputStream {
+        private final String matchId;
+        private final Path spool;
+        private final CRC32 crc = new CRC32();
+        private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        private final DeflaterOutputStream out;
+        private boolean closed;
+
+        private Writer(String matchId, Path spool) throws IOException {
+            this.matchId = matchId;
+            this.spool = spool;
+            this.out = new DeflaterOutputStream(new CheckedOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(spool), BUFFER_BYTES), crc), deflater, BUFFER_BYTES);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        /**
+         * Appends the payload written so far as the match's record and closes the writer.
+         */
+        public void commit() throws IOException {
+            try {
+                out.close();
+                long length = Files.size(spool);
+                byte[] id = matchId.getBytes(StandardCharsets.UTF_8);
+                if (length > Integer.MAX_VALUE - 16 - id.length) {
+                    log.warn("Not archiving matchId={}: {} compressed bytes do not fit a segment", matchId, length);
+                    return;
+                }
+                ByteBuffer header = ByteBuffer.allocate(4 + 2 + id.length + 4 + 4)
+                        .putInt(RECORD_MAGIC)
+                        .putShort((short) id.length)
+                        .put(id)
+                        .putInt((int) length)
+                        .putInt((int) crc.getValue())
+                        .flip();
+                synchronized (TelemetryArchive.this) {
+                    if (index.containsKey(matchId)) {
+                        return;
+                    }
+                    Segment segment = segmentFor(header.remaining() + (int) length);
+                    long blockOffset;
+                    try (FileChannel payload = FileChannel.open(spool, StandardOpenOption.READ)) {
+                        blockOffset = segment.append(header, payload, length);
+                    }
+                    index.put(matchId, new Location(segment, blockOffset, (int) length, (int) crc.getValue()));
+                }
+            } finally {
+                close();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                out.close();
+            } finally {
+                deflater.end();
+                Files.deleteIfExists(spool);
+            }
+        }
+    }
+
+    /**
+     * Inflates a record's block as it is read.
+     */
+    private static final class PayloadStream extends InflaterInputStream {
+        private PayloadStream(ByteBuffer block) {
+            super(new BlockStream(block), new Inflater(), BUFFER_BYTES);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                inf.end();
+            }
+        }
+    }
+
+    private static final class BlockStream extends InputStream {
+        private final ByteBuffer block;
+
+        private BlockStream(ByteBuffer block) {
+            this.block = block;
+        }
+
+        @Override
+        public int read() {
+            return block.hasRemaining() ? block.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!block.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, block.remaining());
+            block.get(b, off, n);
+            return n;
+        }
+    }
+
+    private record Location(Segment segment, long offset, int length, int crc) {
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private long size;
+        private MappedByteBuffer mapped;
+
+        private Segment(Path path) throws IOException {
+            this.path = path;
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            this.size = channel.size();
+        }
+
+        /**
+         * Writes the record header and then the payload at the end of the file, and returns where the
+         * payload starts.
+         */
+        private synchronized long append(ByteBuffer header, FileChannel payload, long length) throws IOException {
+            long position = size;
+            while (header.hasRemaining()) {
+                position += channel.write(header, position);
+            }
+            long copied = 0;
+            while (copied < length) {
+                long n = channel.transferFrom(payload, position + copied, length - copied);
+                if (n <= 0) {
+                    throw new IOException("Spool ended after " + copied + " of " + length + " bytes");
+                }
+                copied += n;
+            }
+            channel.force(false);
+            size = position + length;
+            return position;
+        }
+
+        /**
+         * A read-only view of the given range, remapping the file when it has grown past the mapping.
+         */
+        private synchronized ByteBuffer slice(long offset, int length) throws IOException {
+            if (mapped == null || offset + length > mapped.capacity()) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+            return mapped.slice((int) offset, length);
+        }
+    }
+}
@@ -1,15 +1,19 @@
 package com.example.pubg.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Recover;
 import org.springframework.retry.annotation.Retryable;
@@ -17,38 +21,138 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
-import com.example.pubg.util.SimpleRateLimiter;
+import com.example.pubg.dto.MatchMeta;
+import com.example.pubg.dto.TelemetryEvent;
+import com.example.pubg.util.PriorityRateLimiter;
+import com.example.pubg.util.SingleFlight;
 
 @Component
 public class TelemetryClient {
     private static final Logger log = LoggerFactory.getLogger(TelemetryClient.class);
 
     private final RestTemplate restTemplate;
-    private final SimpleRateLimiter rateLimiter;
-    private final Duration backoff;
+    private final PriorityRateLimiter rateLimiter;
+    private final TelemetryParser telemetryParser;
+    private final Duration maxRateLimitWait;
+    private final TelemetryArchive archive;
+    private final SingleFlight<String, Boolean> downloads = new SingleFlight<>();
 
-    public TelemetryClient(RestTemplate restTemplate, SimpleRateLimiter rateLimiter,
-            @org.springframework.beans.factory.annotation.Value("${pubg.retry.backoff-ms}") long backoffMs) {
+    public TelemetryClient(RestTemplate restTemplate, PriorityRateLimiter rateLimiter,
+            TelemetryParser telemetryParser, TelemetryArchive archive,
+            @org.springframework.beans.factory.annotation.Value("${pubg.rate-limit.max-wait-ms:60000}") long maxWaitMs) {
         this.restTemplate = restTemplate;
         this.rateLimiter = rateLimiter;
-        this.backoff = Duration.ofMillis(backoffMs);
+        this.telemetryParser = telemetryParser;
+        this.archive = archive;
+        this.maxRateLimitWait = Duration.ofMillis(maxWaitMs);
     }
 
+    /**
+     * Telemetry reduced to what feature extraction needs for the given players. The payload is downloaded
+     * once per match however many projections ask for it; each projection is parsed from it and cached
+     * under its own key, which keeps the pro lobbies every benchmark refresh reads on the heap.
+     */
     @Retryable(
             retryFor = {RestClientException.class},
             maxAttemptsExpression = "${pubg.retry.max-attempts}",
             backoff = @Backoff(delayExpression = "${pubg.retry.backoff-ms}"))
-    @Cacheable(value = "telemetry", key = "#telemetryUrl")
-    public List<Map<String, Object>> fetchTelemetry(String telemetryUrl) {
-        return executeWithRateLimit(() -> {
-            ResponseEntity<List> response = restTemplate.exchange(telemetryUrl, HttpMethod.GET, null, List.class);
-            return response.getBody();
-        });
+    @Cacheable(value = "telemetry", key = "#meta.telemetryUrl() + ' ' + #projection.key()")
+    public List<TelemetryEvent> fetchTelemetry(MatchMeta meta, TelemetryProjection projection) {
+        return stream(meta, projection, Collected::new);
+    }
+
+    /**
+     * Feeds the match's telemetry, reduced to the projection, into a fresh sink from {@code sinks} and
+     * returns it. Events reach the sink as they are parsed off the download or the archived payload, so
+     * the sink's own state is all that grows with the match. A retry starts over with a new sink.
+     */
+    @Retryable(
+            retryFor = {RestClientException.class},
+            maxAttemptsExpression = "${pubg.retry.max-attempts}",
+            backoff = @Backoff(delayExpression = "${pubg.retry.backoff-ms}"))
+    public <S extends Consumer<TelemetryEvent>> S streamTelemetry(MatchMeta meta, TelemetryProjection projection,
+            Supplier<S> sinks) {
+        return stream(meta, projection, sinks);
+    }
+
+    /**
+     * Parses the archived payload if there is one. Otherwise the payload is downloaded once per URL: the
+     * caller that downloads it parses the body as it arrives while the raw bytes go to the archive, and
+     * callers that joined the download parse the archived copy once it is done. A joined caller that finds
+     * no archived copy, e.g. because the archive is disabled, downloads the match itself.
+     */
+    private <S extends Consumer<TelemetryEvent>> S stream(MatchMeta meta, TelemetryProjection projection,
+            Supplier<S> sinks) {
+        S sink = parseArchived(meta, projection, sinks);
+        if (sink != null) {
+            return sink;
+        }
+        List<S> downloaded = new ArrayList<>(1);
+        boolean archived = downloads.execute(meta.telemetryUrl(),
+                () -> download(meta, projection, sinks, downloaded));
+        if (!downloaded.isEmpty()) {
+            return downloaded.get(0);
+        }
+        sink = archived ? parseArchived(meta, projection, sinks) : null;
+        if (sink != null) {
+            return sink;
+        }
+        download(meta, projection, sinks, downloaded);
+        return downloaded.get(0);
+    }
+
+    private <S extends Consumer<TelemetryEvent>> S parseArchived(MatchMeta meta, TelemetryProjection projection,
+            Supplier<S> sinks) {
+        InputStream payload = archive.open(meta.matchId());
+        if (payload == null) {
+            return null;
+        }
+        S sink = sinks.get();
+        try (payload) {
+            parse(payload, projection, sink);
+        } catch (IOException e) {
+            throw new PubgApiException("Cannot read archived telemetry for matchId=" + meta.matchId(), e);
+        }
+        return sink;
+    }
+
+    /**
+     * Downloads the payload under the rate limit into a fresh sink, added to {@code downloaded}, and
+     * archives the raw bytes on the way. Returns whether the payload was archived.
+     */
+    private <S extends Consumer<TelemetryEvent>> boolean download(MatchMeta meta, TelemetryProjection projection,
+            Supplier<S> sinks, List<S> downloaded) {
+        return executeWithRateLimit(() -> restTemplate.execute(meta.telemetryUrl(), HttpMethod.GET, null,
+                response -> {
+                    S sink = sinks.get();
+                    downloaded.add(sink);
+                    try (TelemetryArchive.Writer writer = openWriter(meta.matchId())) {
+                        ArchivingStream body = new ArchivingStream(response.getBody(), writer, meta.matchId());
+                        parse(body, projection, sink);
+                        return body.commit();
+                    }
+                }));
+    }
+
+    private void parse(InputStream payload, TelemetryProjection projection, Consumer<TelemetryEvent> sink)
+            throws IOException {
+        telemetryParser.parse(payload, projection, sink);
+    }
+
+    private TelemetryArchive.Writer openWriter(String matchId) {
+        try {
+            return archive.writer(matchId);
+        } catch (IOException e) {
+            log.warn("Cannot archive telemetry for matchId={}", matchId, e);
+            return null;
+        }
     }
 
     private <T> T executeWithRateLimit(Supplier<T> supplier) {
         try {
-            rateLimiter.acquire(backoff);
+            if (!rateLimiter.acquire(maxRateLimitWait)) {
+                throw new PubgApiException("No rate limit permit within " + maxRateLimitWait.toMillis() + "ms");
+            }
             return supplier.get();
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -65,4 +169,94 @@ public class TelemetryClient {
     public <T> T onFailure(Exception ex) {
         throw new PubgApiException("Telemetry fetch failed after retries", ex);
     }
+
+    /**
+     * Copies the body into the archive writer as the parser reads it. A failed archive write only stops
+     * archiving; the download goes on. Closing leaves the body to the response.
+     */
+    private static final class ArchivingStream extends FilterInputStream {
+        private final String matchId;
+        private TelemetryArchive.Writer writer;
+
+        private ArchivingStream(InputStream body, TelemetryArchive.Writer writer, String matchId) {
+            super(body);
+            this.writer = writer;
+            this.matchId = matchId;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = in.read();
+            if (b >= 0 && writer != null) {
+                copy(new byte[] { (byte) b }, 0, 1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = in.read(b, off, len);
+            if (n > 0 && writer != null) {
+                copy(b, off, n);
+            }
+            return n;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            byte[] skipped = new byte[(int) Math.min(n, 8192)];
+            int read = read(skipped, 0, skipped.length);
+            return Math.max(read, 0);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() {
+        }
+
+        /**
+         * Archives the rest of the body and commits it. Returns whether the payload was archived.
+         */
+        private boolean commit() throws IOException {
+            if (writer != null) {
+                // whatever follows the array keeps the archived copy byte for byte what was served
+                transferTo(OutputStream.nullOutputStream());
+            }
+            if (writer == null) {
+                return false;
+            }
+            try {
+                writer.commit();
+                return true;
+            } catch (IOException e) {
+                log.warn("Cannot archive telemetry for matchId={}", matchId, e);
+                return false;
+            }
+        }
+
+        private void copy(byte[] b, int off, int len) {
+            try {
+                writer.write(b, off, len);
+            } catch (IOException e) {
+                log.warn("Stopped archiving telemetry for matchId={}", matchId, e);
+                writer = null;
+            }
+        }
+    }
+
+    /**
+     * The events of a projection, collected as they are parsed.
+     */
+    private static final class Collected extends ArrayList<TelemetryEvent> implements Consumer<TelemetryEvent> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void accept(TelemetryEvent event) {
+            add(event);
+        }
+    }
 }
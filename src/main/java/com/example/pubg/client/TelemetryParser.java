@@ -0,0 +1,301 @@
+package com.example.pubg.client;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.pubg.dto.TelemetryEvent;
+import com.example.pubg.dto.TelemetryEvent.Actor;
+import com.example.pubg.util.TelemetrySymbols;
+import com.example.pubg.util.TelemetryTime;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streams a telemetry JSON array into typed events without materializing the full document tree.
+ * Fields that feature extraction does not read are skipped at the token level. Each distinct event type is
+ * classified once per match through {@link TelemetrySymbols}.
+ */
+@Component
+public class TelemetryParser {
+    private static final Logger log = LoggerFactory.getLogger(TelemetryParser.class);
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public List<TelemetryEvent> parse(InputStream body) throws IOException {
+        return parse(body, TelemetryProjection.ALL);
+    }
+
+    /**
+     * Parses only what the projection needs. A position or throw of another player is dropped before an
+     * event is built, and as soon as both its type and character are known the rest of the object is
+     * skipped token by token.
+     */
+    public List<TelemetryEvent> parse(InputStream body, TelemetryProjection projection) throws IOException {
+        List<TelemetryEvent> events = new ArrayList<>();
+        parse(body, projection, events::add);
+        return events;
+    }
+
+    /**
+     * Hands each event to the sink as soon as it is parsed, so nothing but the sink's own state grows with
+     * the size of the payload.
+     */
+    public void parse(InputStream body, TelemetryProjection projection, Consumer<TelemetryEvent> sink)
+            throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new PubgApiException("Telemetry payload is not a JSON array");
+            }
+            TelemetrySymbols symbols = new TelemetrySymbols();
+            EventFields fields = new EventFields(symbols, projection);
+            int invalidTimestamps = 0;
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+                if (token != JsonToken.START_OBJECT) {
+                    parser.skipChildren();
+                    continue;
+                }
+                fields.reset();
+                if (!readEvent(parser, fields, symbols)) {
+                    continue;
+                }
+                if (fields.timestamp == TelemetryTime.INVALID) {
+                    invalidTimestamps++;
+                    continue;
+                }
+                TelemetryEvent event = fields.toEvent();
+                if (event != null) {
+                    sink.accept(event);
+                }
+            }
+            if (invalidTimestamps > 0) {
+                log.warn("Dropped {} telemetry events without a parseable _D timestamp", invalidTimestamps);
+            }
+        }
+    }
+
+    /**
+     * Returns false when the event was skipped because it falls outside the projection.
+     */
+    private boolean readEvent(JsonParser parser, EventFields fields, TelemetrySymbols symbols) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "_T" -> fields.type = readType(parser, value, symbols);
+                case "_D" -> fields.timestamp = parseTime(parser, value);
+                case "character" -> fields.character = readActor(parser, value, symbols);
+                case "attacker" -> fields.attacker = readActor(parser, value, symbols);
+                case "victim" -> fields.victim = readActor(parser, value, symbols);
+                case "item" -> fields.itemSubCategory = readSubCategory(parser, value, symbols);
+                case "phase" -> fields.phase = value.isNumeric() ? parser.getIntValue() : 0;
+                case "safeZonePosition" -> fields.safeZone = readPoint(parser, value);
+                case "blueZonePosition" -> fields.blueZone = readPoint(parser, value);
+                case "safeZoneRadius" -> fields.safeZoneRadius = readFloat(parser, value);
+                case "radius" -> fields.radius = readFloat(parser, value);
+                case "damageTypeCategory" -> fields.damageTypeCategory = readString(parser, value, symbols);
+                default -> parser.skipChildren();
+            }
+            if (fields.outsideProjection()) {
+                skipRemainingFields(parser);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipRemainingFields(JsonParser parser) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            parser.nextToken();
+            parser.skipChildren();
+        }
+    }
+
+    private Actor readActor(JsonParser parser, JsonToken token, TelemetrySymbols symbols) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        String accountId = null;
+        String name = null;
+        float[] location = null;
+        boolean inVehicle = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "accountId" -> accountId = readString(parser, value, symbols);
+                case "name" -> name = readString(parser, value, symbols);
+                case "location" -> location = readPoint(parser, value);
+                case "isInVehicle" -> inVehicle = value == JsonToken.VALUE_TRUE;
+                default -> parser.skipChildren();
+            }
+        }
+        if (location == null) {
+            return new Actor(accountId, name, Float.NaN, Float.NaN, Float.NaN, inVehicle);
+        }
+        return new Actor(accountId, name, location[0], location[1], location[2], inVehicle);
+    }
+
+    private String readSubCategory(JsonParser parser, JsonToken token, TelemetrySymbols symbols)
+            throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return "";
+        }
+        String subCategory = "";
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            if ("subCategory".equals(field) && value == JsonToken.VALUE_STRING) {
+                subCategory = readString(parser, value, symbols);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return subCategory;
+    }
+
+    private float[] readPoint(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return null;
+        }
+        float[] point = { Float.NaN, Float.NaN, Float.NaN };
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.getCurrentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "x" -> point[0] = readFloat(parser, value);
+                case "y" -> point[1] = readFloat(parser, value);
+                case "z" -> point[2] = readFloat(parser, value);
+                default -> parser.skipChildren();
+            }
+        }
+        return point;
+    }
+
+    private float readFloat(JsonParser parser, JsonToken token) throws IOException {
+        return token.isNumeric() ? parser.getFloatValue() : Float.NaN;
+    }
+
+    private String readString(JsonParser parser, JsonToken token, TelemetrySymbols symbols) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return null;
+        }
+        // account ids and names repeat thousands of times per match; keep one copy of each
+        return symbols.intern(parser.getText());
+    }
+
+    private int readType(JsonParser parser, JsonToken token, TelemetrySymbols symbols) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return -1;
+        }
+        return symbols.type(parser.getText());
+    }
+
+    private long parseTime(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.VALUE_STRING) {
+            parser.skipChildren();
+            return TelemetryTime.INVALID;
+        }
+        return TelemetryTime.parseEpochMillis(parser.getTextCharacters(), parser.getTextOffset(),
+                parser.getTextLength());
+    }
+
+    private static final class EventFields {
+        private final TelemetrySymbols symbols;
+        private final TelemetryProjection projection;
+        private int type;
+        private long timestamp;
+        private Actor character;
+        private Actor attacker;
+        private Actor victim;
+        private String itemSubCategory;
+        private int phase;
+        private float[] safeZone;
+        private float[] blueZone;
+        private float safeZoneRadius;
+        private float radius;
+        private String damageTypeCategory;
+
+        private EventFields(TelemetrySymbols symbols, TelemetryProjection projection) {
+            this.symbols = symbols;
+            this.projection = projection;
+        }
+
+        /**
+         * Whether the event is already known to be a position or throw of a player outside the projection.
+         */
+        private boolean outsideProjection() {
+            return type >= 0 && character != null && !isGlobal(symbols.typeFlags(type))
+                    && !projection.includes(character.id());
+        }
+
+        private static boolean isGlobal(int flags) {
+            return (flags & (TelemetrySymbols.TYPE_PHASE_CHANGE | TelemetrySymbols.TYPE_COMBAT)) != 0;
+        }
+
+        private void reset() {
+            type = -1;
+            timestamp = TelemetryTime.INVALID;
+            character = null;
+            attacker = null;
+            victim = null;
+            itemSubCategory = "";
+            phase = 0;
+            safeZone = null;
+            blueZone = null;
+            safeZoneRadius = Float.NaN;
+            radius = Float.NaN;
+            damageTypeCategory = null;
+        }
+
+        private TelemetryEvent toEvent() {
+            String typeName = type >= 0 ? symbols.typeName(type) : null;
+            int flags = type >= 0 ? symbols.typeFlags(type) : 0;
+            if ((flags & TelemetrySymbols.TYPE_PHASE_CHANGE) != 0) {
+                float[] zone = safeZone != null ? safeZone : blueZone;
+                float x = zone != null && !Float.isNaN(zone[0]) ? zone[0] : 0;
+                float y = zone != null && !Float.isNaN(zone[1]) ? zone[1] : 0;
+                float r = !Float.isNaN(safeZoneRadius) ? safeZoneRadius : !Float.isNaN(radius) ? radius : 0;
+                return new TelemetryEvent.PhaseChange(typeName, timestamp, phase, x, y, r);
+            }
+            if (!isGlobal(flags) && character != null && !projection.includes(character.id())) {
+                return null;
+            }
+            if ((flags & TelemetrySymbols.TYPE_ITEM_THROW) != 0) {
+                return character == null ? null
+                        : new TelemetryEvent.ItemThrow(typeName, timestamp, character, itemSubCategory);
+            }
+            if ((flags & TelemetrySymbols.TYPE_COMBAT) != 0) {
+                if (attacker == null && victim == null) {
+                    attacker = character;
+                }
+                if ((flags & TelemetrySymbols.TYPE_ATTACK) != 0) {
+                    return new TelemetryEvent.Attack(typeName, flags, timestamp, attacker, victim);
+                }
+                if ((flags & TelemetrySymbols.TYPE_TAKE_DAMAGE) != 0) {
+                    return new TelemetryEvent.Damage(typeName, flags, timestamp, attacker, victim,
+                            damageTypeCategory);
+                }
+                return new TelemetryEvent.KillOrDown(typeName, flags, timestamp, attacker, victim,
+                        (flags & TelemetrySymbols.TYPE_DOWN) != 0);
+            }
+            if (character != null && character.hasLocation()) {
+                return new TelemetryEvent.Position(typeName, timestamp, character);
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.pubg.client;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * The players feature extraction needs telemetry for. Phase changes and combat events are always kept,
+ * since match-wide metrics read them for every player; positions and throws are only kept for the
+ * selected accounts. {@link #ALL} keeps everything.
+ */
+public record TelemetryProjection(SortedSet<String> accountIds) {
+    public static final TelemetryProjection ALL = new TelemetryProjection(null);
+
+    public static TelemetryProjection of(Collection<String> accountIds) {
+        return new TelemetryProjection(Collections.unmodifiableSortedSet(new TreeSet<>(accountIds)));
+    }
+
+    /**
+     * Text form for cache keys: the sorted account ids, or {@code *} for {@link #ALL}.
+     */
+    public String key() {
+        return accountIds == null ? "*" : String.join(",", accountIds);
+    }
+
+    public boolean includes(String accountId) {
+        return accountIds == null || accountIds.contains(accountId);
+    }
+}
@@ -2,9 +2,10 @@ package com.example.pubg.config;
 
 import java.time.Duration;
 import java.util.Collections;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
 
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.cache.annotation.EnableCaching;
@@ -13,9 +14,24 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.ClientHttpRequestInterceptor;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.web.client.RestTemplate;
 
-import com.example.pubg.util.SimpleRateLimiter;
+import com.example.pubg.client.RateLimitHeaderInterceptor;
+import com.example.pubg.util.HeapSizeEstimator;
+import com.example.pubg.util.MemoryBudget;
+import com.example.pubg.util.PriorityRateLimiter;
+import com.example.pubg.util.RateLimiter;
+import com.example.pubg.util.RedisRateLimiter;
+import com.example.pubg.util.TelemetryCodec;
+import com.example.pubg.util.TelemetryRedisSerializer;
+import com.example.pubg.util.TieredCacheManager;
+import com.example.pubg.util.TokenBucketRateLimiter;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
 import org.apache.hc.client5.http.impl.classic.HttpClients;
 import org.apache.hc.client5.http.config.RequestConfig;
@@ -24,6 +40,7 @@ import org.apache.hc.core5.util.Timeout;
 @Configuration
 @EnableCaching
 public class AppConfig {
+    private static final Duration CACHE_TTL = Duration.ofHours(24);
 
     @Value("${pubg.api-key}")
     private String apiKey;
@@ -32,10 +49,46 @@ public class AppConfig {
     private String apiHost;
 
     @Value("${pubg.rate-limit.requests-per-second}")
-    private int requestsPerSecond;
+    private double requestsPerSecond;
+
+    @Value("${pubg.rate-limit.burst:1}")
+    private int rateLimitBurst;
+
+    @Value("${pubg.rate-limit.backend:local}")
+    private String rateLimitBackend;
+
+    @Value("${pubg.rate-limit.redis.key:pubg:rate-limit}")
+    private String rateLimitRedisKey;
+
+    @Value("${pubg.rate-limit.redis.fallback-share:1.0}")
+    private double rateLimitFallbackShare;
+
+    @Value("${pubg.rate-limit.interactive-share:0.8}")
+    private double interactiveShare;
+
+    @Value("${pubg.rate-limit.reserved-interactive:0.25}")
+    private double reservedInteractive;
+
+    @Value("${pubg.cache.local-max-bytes:268435456}")
+    private long localCacheMaxBytes;
+
+    @Value("${pubg.ingest.parallelism:4}")
+    private int ingestParallelism;
+
+    @Value("${pubg.ingest.max-concurrent-jobs:2}")
+    private int maxConcurrentJobs;
+
+    @Value("${pubg.benchmark.prefetch-depth:2}")
+    private int benchmarkPrefetchDepth;
+
+    @Value("${pubg.api-parallelism:8}")
+    private int apiParallelism;
+
+    @Value("${pubg.memory.budget-bytes:0}")
+    private long memoryBudgetBytes;
 
     @Bean
-    public RestTemplate pubgRestTemplate(RestTemplateBuilder builder) {
+    public RestTemplate pubgRestTemplate(RestTemplateBuilder builder, RateLimiter rateLimiter) {
         RequestConfig requestConfig = RequestConfig.custom()
                 .setConnectTimeout(Timeout.ofSeconds(5))
                 .setConnectionRequestTimeout(Timeout.ofSeconds(5))
@@ -57,26 +110,105 @@ public class AppConfig {
         return builder
                 .rootUri(apiHost)
                 .requestFactory(() -> requestFactory)
-                .additionalInterceptors(Collections.singletonList(authInterceptor))
+                .additionalInterceptors(authInterceptor, new RateLimitHeaderInterceptor(rateLimiter, requestsPerSecond))
                 .build();
     }
 
+    /**
+     * Bounded pool for per-match telemetry download and feature computation.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService ingestExecutor() {
+        return Executors.newFixedThreadPool(Math.max(1, ingestParallelism), new CustomizableThreadFactory("ingest-"));
+    }
+
+    /**
+     * Runs queued ingest jobs; each job fans its matches out to {@link #ingestExecutor()}.
+     */
     @Bean(destroyMethod = "shutdown")
-    public ScheduledExecutorService scheduler() {
-        return Executors.newSingleThreadScheduledExecutor();
+    public ExecutorService ingestJobExecutor() {
+        return Executors.newFixedThreadPool(Math.max(1, maxConcurrentJobs), new CustomizableThreadFactory("ingest-job-"));
     }
 
+    /**
+     * Downloads benchmark matches ahead of feature computation. A refresh has at most prefetch-depth + 1
+     * downloads in flight; they wait on the background rate-limit share here, not on {@link #ingestExecutor()}.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService benchmarkPrefetchExecutor() {
+        return Executors.newFixedThreadPool(Math.max(0, benchmarkPrefetchDepth) + 1,
+                new CustomizableThreadFactory("benchmark-prefetch-"));
+    }
+
+    /**
+     * Fan-out pool for independent PUBG API lookups such as match metadata.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService pubgApiExecutor() {
+        return Executors.newFixedThreadPool(Math.max(1, apiParallelism), new CustomizableThreadFactory("pubg-api-"));
+    }
+
+    /**
+     * With the redis backend all instances share one bucket, which is what keeps replicas within the
+     * budget of a single API key.
+     */
+    @Bean
+    public RateLimiter pubgRateLimiter(ObjectProvider<StringRedisTemplate> redisTemplate) {
+        if ("redis".equalsIgnoreCase(rateLimitBackend)) {
+            return new RedisRateLimiter(redisTemplate.getObject(), rateLimitRedisKey, requestsPerSecond,
+                    rateLimitBurst, rateLimitFallbackShare);
+        }
+        return new TokenBucketRateLimiter(requestsPerSecond, rateLimitBurst);
+    }
+
+    @Bean
+    public PriorityRateLimiter pubgRequestScheduler(RateLimiter pubgRateLimiter) {
+        return new PriorityRateLimiter(pubgRateLimiter, interactiveShare, reservedInteractive);
+    }
+
+    /**
+     * Heap budget shared by all telemetry being fetched and processed; a quarter of the max heap unless
+     * configured.
+     */
     @Bean
-    public SimpleRateLimiter pubgRateLimiter(ScheduledExecutorService scheduler) {
-        SimpleRateLimiter limiter = new SimpleRateLimiter(requestsPerSecond);
-        limiter.scheduleRefill(scheduler);
-        return limiter;
+    public MemoryBudget telemetryMemoryBudget() {
+        return new MemoryBudget(memoryBudgetBytes > 0 ? memoryBudgetBytes : Runtime.getRuntime().maxMemory() / 4);
     }
 
     @Bean
     public RedisCacheConfiguration cacheConfiguration() {
         return RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(24))
+                .entryTtl(CACHE_TTL)
                 .disableCachingNullValues();
     }
+
+    /**
+     * Redis stays the shared tier; hot entries are also kept deserialized on the heap, bounded by the
+     * estimated bytes they retain. Caffeine's W-TinyLFU admission keeps a one-off match from pushing out
+     * the pro lobbies every benchmark refresh reads.
+     */
+    @Bean
+    public TieredCacheManager cacheManager(RedisConnectionFactory connectionFactory,
+            RedisCacheConfiguration cacheConfiguration) {
+        RedisCacheManager redis = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(cacheConfiguration)
+                .withCacheConfiguration("telemetry", telemetryCacheConfiguration(cacheConfiguration))
+                .build();
+        redis.afterPropertiesSet();
+        return new TieredCacheManager(redis, name -> Caffeine.newBuilder()
+                .maximumWeight(localCacheMaxBytes)
+                .weigher((key, value) -> HeapSizeEstimator.estimate(value))
+                .expireAfterWrite(CACHE_TTL)
+                .recordStats());
+    }
+
+    /**
+     * Telemetry is stored in the compact {@link TelemetryCodec} form. The key prefix carries the format
+     * so entries written by an older serializer are simply missed and expire.
+     */
+    private RedisCacheConfiguration telemetryCacheConfiguration(RedisCacheConfiguration defaults) {
+        return defaults
+                .computePrefixWith(name -> name + ":ptc1::")
+                .serializeValuesWith(SerializationPair.fromSerializer(new TelemetryRedisSerializer()));
+    }
 }
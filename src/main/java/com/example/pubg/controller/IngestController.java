@@ -2,26 +2,40 @@ package com.example.pubg.controller;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.example.pubg.dto.IngestJobStatus;
 import com.example.pubg.dto.IngestRequest;
-import com.example.pubg.dto.IngestResponse;
-import com.example.pubg.service.IngestService;
+import com.example.pubg.service.IngestJobService;
 
 @RestController
 @RequestMapping("/v1/ingest")
 public class IngestController {
-    private final IngestService ingestService;
+    private final IngestJobService ingestJobService;
 
-    public IngestController(IngestService ingestService) {
-        this.ingestService = ingestService;
+    public IngestController(IngestJobService ingestJobService) {
+        this.ingestJobService = ingestJobService;
     }
 
     @PostMapping
-    public ResponseEntity<IngestResponse> ingest(@Validated @RequestBody IngestRequest request) {
-        return ResponseEntity.ok(ingestService.ingestRecentMatches(request));
+    public ResponseEntity<IngestJobStatus> ingest(@Validated @RequestBody IngestRequest request) {
+        IngestJobStatus job = ingestJobService.submit(request);
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentRequest().path("/{jobId}")
+                        .buildAndExpand(job.getJobId()).toUri())
+                .body(job);
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<IngestJobStatus> status(@PathVariable String jobId) {
+        return ingestJobService.status(jobId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 }
@@ -0,0 +1,48 @@
+package com.example.pubg.controller;
+
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.pubg.util.MemoryBudget;
+import com.example.pubg.util.PriorityRateLimiter;
+import com.example.pubg.util.RateLimiter;
+import com.example.pubg.util.TieredCache;
+import com.example.pubg.util.TieredCacheManager;
+
+@RestController
+@RequestMapping("/v1/ops")
+public class OpsController {
+    private final RateLimiter rateLimiter;
+    private final PriorityRateLimiter requestScheduler;
+    private final TieredCacheManager cacheManager;
+    private final MemoryBudget memoryBudget;
+
+    public OpsController(RateLimiter rateLimiter, PriorityRateLimiter requestScheduler,
+            TieredCacheManager cacheManager, MemoryBudget memoryBudget) {
+        this.rateLimiter = rateLimiter;
+        this.requestScheduler = requestScheduler;
+        this.cacheManager = cacheManager;
+        this.memoryBudget = memoryBudget;
+    }
+
+    @GetMapping("/rate-limit")
+    public ResponseEntity<Map<String, Object>> rateLimit() {
+        return ResponseEntity.ok(Map.of(
+                "bucket", rateLimiter.stats(),
+                "classes", requestScheduler.stats()));
+    }
+
+    @GetMapping("/cache")
+    public ResponseEntity<Map<String, TieredCache.Stats>> cache() {
+        return ResponseEntity.ok(cacheManager.stats());
+    }
+
+    @GetMapping("/memory")
+    public ResponseEntity<MemoryBudget.Stats> memory() {
+        return ResponseEntity.ok(memoryBudget.stats());
+    }
+}
@@ -1,43 +1,133 @@
 package com.example.pubg.dto;
 
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
+/**
+ * A player's metrics over one or more matches, as dense per-metric sufficient statistics indexed by
+ * {@link MetricRegistry} with a presence bitmap. Aggregates merge in O(1) per metric and in any order;
+ * the map getters report the mean over the matches a metric was observed in, keyed by metric name.
+ */
 public class FeatureAggregate {
-    private final Map<String, Double> phaseMetrics;
-    private final Map<String, Double> combatMetrics;
-    private final Map<String, Double> grenadeMetrics;
+    private final long[] present;
+    private final int[] counts;
+    private final double[] sums;
+    private final double[] sumSquares;
+    private final double[] mins;
+    private final double[] maxs;
 
-    public FeatureAggregate(Map<String, Double> phaseMetrics, Map<String, Double> combatMetrics,
-            Map<String, Double> grenadeMetrics) {
-        this.phaseMetrics = Collections.unmodifiableMap(new HashMap<>(phaseMetrics));
-        this.combatMetrics = Collections.unmodifiableMap(new HashMap<>(combatMetrics));
-        this.grenadeMetrics = Collections.unmodifiableMap(new HashMap<>(grenadeMetrics));
+    /**
+     * Metrics of a single match.
+     */
+    public FeatureAggregate(MetricVector metrics) {
+        this();
+        for (int i = metrics.nextPresent(0); i >= 0; i = metrics.nextPresent(i + 1)) {
+            double value = metrics.get(i);
+            present[i >>> 6] |= 1L << i;
+            counts[i] = 1;
+            sums[i] = value;
+            sumSquares[i] = value * value;
+            mins[i] = value;
+            maxs[i] = value;
+        }
+    }
+
+    private FeatureAggregate() {
+        int size = MetricRegistry.SIZE;
+        present = new long[(size + 63) >>> 6];
+        counts = new int[size];
+        sums = new double[size];
+        sumSquares = new double[size];
+        mins = new double[size];
+        maxs = new double[size];
+    }
+
+    public boolean has(int metric) {
+        return (present[metric >>> 6] & 1L << metric) != 0;
+    }
+
+    /**
+     * Index of the first metric present at or after {@code from}, or -1.
+     */
+    public int nextMetric(int from) {
+        return MetricVector.nextSetBit(present, from);
+    }
+
+    public double mean(int metric) {
+        return counts[metric] == 0 ? 0 : sums[metric] / counts[metric];
+    }
+
+    public MetricStats stats(int metric) {
+        return new MetricStats(counts[metric], sums[metric], sumSquares[metric], mins[metric], maxs[metric]);
     }
 
     public Map<String, Double> getPhaseMetrics() {
-        return phaseMetrics;
+        return means(MetricRegistry.Family.PHASE);
     }
 
     public Map<String, Double> getCombatMetrics() {
-        return combatMetrics;
+        return means(MetricRegistry.Family.COMBAT);
     }
 
     public Map<String, Double> getGrenadeMetrics() {
-        return grenadeMetrics;
+        return means(MetricRegistry.Family.GRENADE);
     }
 
+    /**
+     * Combines two aggregates as if their matches had been aggregated together.
+     */
     public FeatureAggregate merge(FeatureAggregate other) {
-        Map<String, Double> mergedPhase = averageMaps(this.phaseMetrics, other.phaseMetrics);
-        Map<String, Double> mergedCombat = averageMaps(this.combatMetrics, other.combatMetrics);
-        Map<String, Double> mergedGrenade = averageMaps(this.grenadeMetrics, other.grenadeMetrics);
-        return new FeatureAggregate(mergedPhase, mergedCombat, mergedGrenade);
+        FeatureAggregate merged = new FeatureAggregate();
+        for (int w = 0; w < present.length; w++) {
+            merged.present[w] = present[w] | other.present[w];
+        }
+        for (int i = merged.nextMetric(0); i >= 0; i = merged.nextMetric(i + 1)) {
+            if (!other.has(i)) {
+                merged.copy(this, i);
+            } else if (!has(i)) {
+                merged.copy(other, i);
+            } else {
+                merged.counts[i] = counts[i] + other.counts[i];
+                merged.sums[i] = sums[i] + other.sums[i];
+                merged.sumSquares[i] = sumSquares[i] + other.sumSquares[i];
+                merged.mins[i] = Math.min(mins[i], other.mins[i]);
+                merged.maxs[i] = Math.max(maxs[i], other.maxs[i]);
+            }
+        }
+        return merged;
+    }
+
+    private void copy(FeatureAggregate from, int i) {
+        counts[i] = from.counts[i];
+        sums[i] = from.sums[i];
+        sumSquares[i] = from.sumSquares[i];
+        mins[i] = from.mins[i];
+        maxs[i] = from.maxs[i];
+    }
+
+    private Map<String, Double> means(MetricRegistry.Family family) {
+        Map<String, Double> means = new LinkedHashMap<>();
+        for (int i = nextMetric(0); i >= 0; i = nextMetric(i + 1)) {
+            if (MetricRegistry.family(i) == family) {
+                means.put(MetricRegistry.name(i), mean(i));
+            }
+        }
+        return Collections.unmodifiableMap(means);
     }
 
-    private Map<String, Double> averageMaps(Map<String, Double> a, Map<String, Double> b) {
-        Map<String, Double> result = new HashMap<>(a);
-        b.forEach((k, v) -> result.merge(k, v, (v1, v2) -> (v1 + v2) / 2.0));
-        return result;
+    /**
+     * Present metrics by name with their mean and match count, for logs.
+     */
+    @Override
+    public String toString() {
+        StringBuilder out = new StringBuilder("FeatureAggregate{");
+        String separator = "";
+        for (int i = nextMetric(0); i >= 0; i = nextMetric(i + 1)) {
+            out.append(separator).append(MetricRegistry.name(i)).append('=').append(mean(i))
+                    .append(" (n=").append(counts[i]).append(')');
+            separator = ", ";
+        }
+        return out.append('}').toString();
     }
 }
@@ -0,0 +1,75 @@
+package com.example.pubg.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+public class IngestJobStatus {
+    public enum State {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private String jobId;
+    private State state;
+    private String accountId;
+    private int totalMatches;
+    private int processedMatches;
+    private List<String> failedMatchIds;
+    private String error;
+    private IngestResponse result;
+    private Instant submittedAt;
+    private Instant finishedAt;
+
+    public IngestJobStatus(String jobId, State state, String accountId, int totalMatches, int processedMatches,
+            List<String> failedMatchIds, String error, IngestResponse result, Instant submittedAt, Instant finishedAt) {
+        this.jobId = jobId;
+        this.state = state;
+        this.accountId = accountId;
+        this.totalMatches = totalMatches;
+        this.processedMatches = processedMatches;
+        this.failedMatchIds = failedMatchIds;
+        this.error = error;
+        this.result = result;
+        this.submittedAt = submittedAt;
+        this.finishedAt = finishedAt;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public String getAccountId() {
+        return accountId;
+    }
+
+    public int getTotalMatches() {
+        return totalMatches;
+    }
+
+    public int getProcessedMatches() {
+        return processedMatches;
+    }
+
+    public List<String> getFailedMatchIds() {
+        return failedMatchIds;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public IngestResponse getResult() {
+        return result;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+}
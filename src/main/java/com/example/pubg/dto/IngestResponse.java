@@ -5,10 +5,12 @@ import java.util.List;
 public class IngestResponse {
     private String accountId;
     private List<String> matchIds;
+    private List<String> failedMatchIds;
 
-    public IngestResponse(String accountId, List<String> matchIds) {
+    public IngestResponse(String accountId, List<String> matchIds, List<String> failedMatchIds) {
         this.accountId = accountId;
         this.matchIds = matchIds;
+        this.failedMatchIds = failedMatchIds;
     }
 
     public String getAccountId() {
@@ -18,4 +20,8 @@ public class IngestResponse {
     public List<String> getMatchIds() {
         return matchIds;
     }
+
+    public List<String> getFailedMatchIds() {
+        return failedMatchIds;
+    }
 }
@@ -0,0 +1,90 @@
+package com.example.pubg.dto;
+
+/**
+ * Fixed schema of every metric feature extraction produces. Each metric has a stable index into
+ * {@link MetricVector} and {@link FeatureAggregate}; new metrics must be appended so existing indexes
+ * keep their meaning. Names such as {@code phase3.center_bias} are built once here and only used at the
+ * edges (storage keys, feedback cards).
+ * <p>
+ * Phase metrics are laid out as one block of {@link #PHASE_METRICS} per phase number
+ * {@code 0..MAX_PHASE}; phases beyond that are not recorded.
+ */
+public final class MetricRegistry {
+    public enum Family {
+        PHASE, COMBAT, GRENADE
+    }
+
+    public static final int MAX_PHASE = 15;
+    public static final int PHASE_METRICS = 6;
+
+    // offsets within a phase block
+    public static final int ENTER_DELAY_S = 0;
+    public static final int CENTER_BIAS = 1;
+    public static final int ROTATION_DISTANCE_M = 2;
+    public static final int AVG_SPEED_MPS = 3;
+    public static final int ENTERED_WITH_VEHICLE = 4;
+    public static final int BLUE_EXPOSURE_S_PHASE = 5;
+
+    private static final int COMBAT_BASE = (MAX_PHASE + 1) * PHASE_METRICS;
+    public static final int TEAM_ANGLE_VAR_DEG = COMBAT_BASE;
+    public static final int TEAM_SPREAD_M = COMBAT_BASE + 1;
+    public static final int SIMUL_FIRE_RATE = COMBAT_BASE + 2;
+    public static final int FIRST_SHOT_DISTANCE_M = COMBAT_BASE + 3;
+    public static final int DTK_CONV_RATE = COMBAT_BASE + 4;
+
+    private static final int GRENADE_BASE = COMBAT_BASE + 5;
+    public static final int FRAG_PER_10M = GRENADE_BASE;
+    public static final int SMOKE_PER_10M = GRENADE_BASE + 1;
+    public static final int FLASH_PER_10M = GRENADE_BASE + 2;
+    public static final int MOLOTOV_PER_10M = GRENADE_BASE + 3;
+    public static final int FIRST_GRENADE_DELAY_S = GRENADE_BASE + 4;
+    public static final int PRE_PUSH_GRENADE_RATE = GRENADE_BASE + 5;
+    public static final int NADE_TO_DOWN_CHAIN_RATE = GRENADE_BASE + 6;
+
+    public static final int SIZE = GRENADE_BASE + 7;
+
+    private static final String[] PHASE_SUFFIXES = { "enter_delay_s", "center_bias", "rotation_distance_m",
+            "avg_speed_mps", "entered_with_vehicle", "blue_exposure_s_phase" };
+    private static final String[] NAMES = new String[SIZE];
+
+    static {
+        for (int phase = 0; phase <= MAX_PHASE; phase++) {
+            for (int metric = 0; metric < PHASE_METRICS; metric++) {
+                NAMES[phase * PHASE_METRICS + metric] = "phase" + phase + "." + PHASE_SUFFIXES[metric];
+            }
+        }
+        NAMES[TEAM_ANGLE_VAR_DEG] = "team_angle_var_deg";
+        NAMES[TEAM_SPREAD_M] = "team_spread_m";
+        NAMES[SIMUL_FIRE_RATE] = "simul_fire_rate";
+        NAMES[FIRST_SHOT_DISTANCE_M] = "first_shot_distance_m";
+        NAMES[DTK_CONV_RATE] = "dtk_conv_rate";
+        NAMES[FRAG_PER_10M] = "frag_per_10m";
+        NAMES[SMOKE_PER_10M] = "smoke_per_10m";
+        NAMES[FLASH_PER_10M] = "flash_per_10m";
+        NAMES[MOLOTOV_PER_10M] = "molotov_per_10m";
+        NAMES[FIRST_GRENADE_DELAY_S] = "first_grenade_delay_s";
+        NAMES[PRE_PUSH_GRENADE_RATE] = "pre_push_grenade_rate";
+        NAMES[NADE_TO_DOWN_CHAIN_RATE] = "nade_to_down_chain_rate";
+    }
+
+    private MetricRegistry() {
+    }
+
+    /**
+     * Index of a per-phase metric, or -1 if the phase number is outside the schema.
+     */
+    public static int phase(int phase, int metric) {
+        return phase >= 0 && phase <= MAX_PHASE ? phase * PHASE_METRICS + metric : -1;
+    }
+
+    public static String name(int index) {
+        return NAMES[index];
+    }
+
+    public static Family family(int index) {
+        if (index < COMBAT_BASE) {
+            return Family.PHASE;
+        }
+        return index < GRENADE_BASE ? Family.COMBAT : Family.GRENADE;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.pubg.dto;
+
+/**
+ * Sufficient statistics of one metric over the matches it was observed in, as held by
+ * {@link FeatureAggregate}.
+ */
+public record MetricStats(long count, double sum, double sumOfSquares, double min, double max) {
+
+    public double mean() {
+        return count == 0 ? 0 : sum / count;
+    }
+
+    /**
+     * Population variance over the observed matches.
+     */
+    public double variance() {
+        if (count == 0) {
+            return 0;
+        }
+        double mean = mean();
+        // rounding can push the difference slightly below zero for near-constant metrics
+        return Math.max(0, sumOfSquares / count - mean * mean);
+    }
+
+    public double stdDev() {
+        return Math.sqrt(variance());
+    }
+}
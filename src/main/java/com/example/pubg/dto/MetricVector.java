@@ -0,0 +1,62 @@
+package com.example.pubg.dto;
+
+import java.util.Arrays;
+
+/**
+ * One value per {@link MetricRegistry} index plus a presence bitmap, so metrics are written and read by
+ * index without boxing or string keys. Not thread-safe.
+ */
+public final class MetricVector {
+    private final double[] values = new double[MetricRegistry.SIZE];
+    private final long[] present = new long[(MetricRegistry.SIZE + 63) >>> 6];
+
+    public void set(int index, double value) {
+        values[index] = value;
+        present[index >>> 6] |= 1L << index;
+    }
+
+    public boolean has(int index) {
+        return (present[index >>> 6] & 1L << index) != 0;
+    }
+
+    public double get(int index) {
+        return values[index];
+    }
+
+    /**
+     * Index of the first present metric at or after {@code from}, or -1.
+     */
+    public int nextPresent(int from) {
+        return nextSetBit(present, from);
+    }
+
+    public void clear() {
+        Arrays.fill(present, 0);
+    }
+
+    /**
+     * Copies every metric present in {@code other} into this vector.
+     */
+    public void putAll(MetricVector other) {
+        for (int i = other.nextPresent(0); i >= 0; i = other.nextPresent(i + 1)) {
+            set(i, other.values[i]);
+        }
+    }
+
+    static int nextSetBit(long[] words, int from) {
+        int word = from >>> 6;
+        if (word >= words.length) {
+            return -1;
+        }
+        long bits = words[word] & (-1L << from);
+        while (true) {
+            if (bits != 0) {
+                return word * 64 + Long.numberOfTrailingZeros(bits);
+            }
+            if (++word == words.length) {
+                return -1;
+            }
+            bits = words[word];
+        }
+    }
+}
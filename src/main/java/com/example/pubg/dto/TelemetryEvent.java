@@ -0,0 +1,64 @@
+package com.example.pubg.dto;
+
+import java.io.Serializable;
+
+import com.example.pubg.util.TelemetrySymbols;
+
+/**
+ * Compact typed view of a single telemetry event. Only the fields feature extraction reads are kept.
+ * Combat events also carry the {@link TelemetrySymbols} {@code TYPE_*} bits of their type, classified
+ * once per type by whoever built them, so consumers test bits instead of matching the type name.
+ */
+public sealed interface TelemetryEvent extends Serializable {
+    String type();
+
+    /**
+     * Event time in epoch milliseconds.
+     */
+    long timestamp();
+
+    record Actor(String accountId, String name, float x, float y, float z, boolean inVehicle) implements Serializable {
+        public String id() {
+            return accountId != null ? accountId : name;
+        }
+
+        public String displayName() {
+            return name != null ? name : accountId;
+        }
+
+        public boolean hasLocation() {
+            return !Float.isNaN(x) && !Float.isNaN(y);
+        }
+    }
+
+    record Position(String type, long timestamp, Actor character) implements TelemetryEvent {
+    }
+
+    record PhaseChange(String type, long timestamp, int phase, float x, float y, float radius)
+            implements TelemetryEvent {
+    }
+
+    record ItemThrow(String type, long timestamp, Actor character, String subCategory) implements TelemetryEvent {
+    }
+
+    record Attack(String type, int typeFlags, long timestamp, Actor attacker, Actor victim)
+            implements TelemetryEvent {
+        public Attack(String type, long timestamp, Actor attacker, Actor victim) {
+            this(type, TelemetrySymbols.classify(type), timestamp, attacker, victim);
+        }
+    }
+
+    record Damage(String type, int typeFlags, long timestamp, Actor attacker, Actor victim,
+            String damageTypeCategory) implements TelemetryEvent {
+        public Damage(String type, long timestamp, Actor attacker, Actor victim, String damageTypeCategory) {
+            this(type, TelemetrySymbols.classify(type), timestamp, attacker, victim, damageTypeCategory);
+        }
+    }
+
+    record KillOrDown(String type, int typeFlags, long timestamp, Actor attacker, Actor victim, boolean down)
+            implements TelemetryEvent {
+        public KillOrDown(String type, long timestamp, Actor attacker, Actor victim, boolean down) {
+            this(type, TelemetrySymbols.classify(type), timestamp, attacker, victim, down);
+        }
+    }
+}
@@ -1,25 +1,40 @@
 package com.example.pubg.service;
 
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.example.pubg.client.PubgApiClient;
 import com.example.pubg.client.TelemetryClient;
+import com.example.pubg.client.TelemetryProjection;
 import com.example.pubg.dto.BenchmarkRequest;
 import com.example.pubg.dto.FeatureAggregate;
 import com.example.pubg.dto.MatchMeta;
+import com.example.pubg.dto.MetricRegistry;
+import com.example.pubg.dto.TelemetryEvent;
 import com.example.pubg.dto.ProDistroDto;
 import com.example.pubg.entity.ProDistro;
 import com.example.pubg.repository.ProDistroRepository;
+import com.example.pubg.util.HeapSizeEstimator;
+import com.example.pubg.util.MemoryBudget;
+import com.example.pubg.util.RequestPriority;
 
 @Service
 public class BenchmarkService {
@@ -27,46 +42,151 @@ public class BenchmarkService {
     private final TelemetryClient telemetryClient;
     private final FeatureService featureService;
     private final ProDistroRepository proDistroRepository;
+    private final TelemetryAdmission admission;
+    private final ExecutorService prefetchExecutor;
+    private final int prefetchDepth;
 
     public BenchmarkService(PubgApiClient pubgApiClient, TelemetryClient telemetryClient,
-            FeatureService featureService, ProDistroRepository proDistroRepository) {
+            FeatureService featureService, ProDistroRepository proDistroRepository, TelemetryAdmission admission,
+            @Qualifier("benchmarkPrefetchExecutor") ExecutorService prefetchExecutor,
+            @Value("${pubg.benchmark.prefetch-depth:2}") int prefetchDepth) {
         this.pubgApiClient = pubgApiClient;
         this.telemetryClient = telemetryClient;
         this.featureService = featureService;
         this.proDistroRepository = proDistroRepository;
+        this.admission = admission;
+        this.prefetchExecutor = prefetchExecutor;
+        this.prefetchDepth = Math.max(0, prefetchDepth);
     }
 
     @Transactional
     public List<ProDistroDto> refresh(BenchmarkRequest request) {
+        // a refresh makes hundreds of API calls; keep them behind interactive ingests
+        DescriptiveStatistics[] samples = RequestPriority.call(RequestPriority.BACKGROUND,
+                () -> collectMetrics(request));
+        List<ProDistroDto> dtos = new ArrayList<>();
+        for (int metric = 0; metric < samples.length; metric++) {
+            if (samples[metric] == null) {
+                continue;
+            }
+            String key = MetricRegistry.name(metric);
+            ProDistro distro = toDistro(key, samples[metric]);
+            proDistroRepository.findByMetricKey(key)
+                    .ifPresentOrElse(existing -> update(existing, distro), () -> proDistroRepository.save(distro));
+            dtos.add(toDto(distro));
+        }
+        return dtos;
+    }
+
+    /**
+     * Samples of every pro's per-match value, indexed by {@link MetricRegistry} metric; null where no
+     * match produced the metric.
+     */
+    private DescriptiveStatistics[] collectMetrics(BenchmarkRequest request) {
         List<String> accountIds = pubgApiClient.fetchLeaderboardAccountIds(request.getMode(), request.getLeaderboardSize());
 
-        Map<String, List<Double>> metricBuckets = new HashMap<>();
+        // pros often share lobbies; scan each match once for every sampled pro who played in it
+        Map<String, MatchMeta> matchesById = new LinkedHashMap<>();
+        Map<String, Set<String>> prosByMatch = new LinkedHashMap<>();
         for (String accountId : accountIds) {
             List<MatchMeta> matches = pubgApiClient.fetchRecentMatches(accountId, request.getSamplePerPlayer());
             for (MatchMeta meta : matches) {
-                List<Map<String, Object>> telemetry = telemetryClient.fetchTelemetry(meta.telemetryUrl());
-                FeatureAggregate agg = featureService.computeFeatures(accountId, meta, telemetry);
-                merge(metricBuckets, agg.getPhaseMetrics());
-                merge(metricBuckets, agg.getCombatMetrics());
-                merge(metricBuckets, agg.getGrenadeMetrics());
+                matchesById.putIfAbsent(meta.matchId(), meta);
+                prosByMatch.computeIfAbsent(meta.matchId(), id -> new LinkedHashSet<>()).add(accountId);
             }
         }
-        List<ProDistroDto> dtos = new ArrayList<>();
-        for (Map.Entry<String, List<Double>> entry : metricBuckets.entrySet()) {
-            ProDistro distro = toDistro(entry.getKey(), entry.getValue());
-            proDistroRepository.findByMetricKey(entry.getKey())
-                    .ifPresentOrElse(existing -> update(existing, distro), () -> proDistroRepository.save(distro));
-            dtos.add(toDto(distro));
+
+        // downloads run up to prefetchDepth matches ahead of the one whose features are being computed
+        List<MatchMeta> metas = new ArrayList<>(matchesById.values());
+        RequestPriority priority = RequestPriority.current();
+        Deque<CompletableFuture<Prefetched>> ahead = new ArrayDeque<>();
+        int next = 0;
+        DescriptiveStatistics[] samples = new DescriptiveStatistics[MetricRegistry.SIZE];
+        try {
+            for (MatchMeta meta : metas) {
+                while (next < metas.size() && ahead.size() <= prefetchDepth) {
+                    MatchMeta upcoming = metas.get(next);
+                    MemoryBudget.Lease lease = admit(upcoming, ahead.isEmpty());
+                    if (lease == null) {
+                        break;
+                    }
+                    next++;
+                    ahead.add(prefetch(upcoming, prosByMatch.get(upcoming.matchId()), priority, lease));
+                }
+                Set<String> pros = prosByMatch.get(meta.matchId());
+                Prefetched prefetched = join(ahead.poll());
+                Map<String, FeatureAggregate> perPro;
+                try {
+                    perPro = featureService.computeFeatures(pros, meta, prefetched.telemetry());
+                } finally {
+                    prefetched.lease().close();
+                }
+                for (FeatureAggregate agg : perPro.values()) {
+                    addSamples(samples, agg);
+                }
+            }
+        } finally {
+            // after a failure, hand back the budget of downloads that are still in flight
+            ahead.forEach(pending -> pending.thenAccept(prefetched -> prefetched.lease().close()));
         }
-        return dtos;
+        return samples;
     }
 
-    private void merge(Map<String, List<Double>> bucket, Map<String, Double> metrics) {
-        metrics.forEach((k, v) -> bucket.computeIfAbsent(k, key -> new ArrayList<>()).add(v));
+    /**
+     * Leases are taken here on the refresh thread in match order, so they are released in the order they
+     * were granted. Only the match about to be computed may wait for budget; a match further ahead is
+     * prefetched only if budget is free now, since waiting on leases this thread holds itself would stall
+     * until the admission timeout.
+     */
+    private MemoryBudget.Lease admit(MatchMeta meta, boolean next) {
+        return next ? admission.admit(meta.matchId()) : admission.tryAdmit();
     }
 
-    private ProDistro toDistro(String key, List<Double> values) {
-        DescriptiveStatistics stats = new DescriptiveStatistics(values.stream().mapToDouble(Double::doubleValue).toArray());
+    /**
+     * Downloads one admitted match on the prefetch pool. The lease stays open until the compute stage has
+     * consumed the telemetry.
+     */
+    private CompletableFuture<Prefetched> prefetch(MatchMeta meta, Set<String> pros, RequestPriority priority,
+            MemoryBudget.Lease lease) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    List<TelemetryEvent> telemetry = RequestPriority.call(priority,
+                            () -> telemetryClient.fetchTelemetry(meta, TelemetryProjection.of(pros)));
+                    lease.resize(HeapSizeEstimator.estimate(telemetry));
+                    return new Prefetched(telemetry, lease);
+                } catch (RuntimeException e) {
+                    lease.close();
+                    throw e;
+                }
+            }, prefetchExecutor);
+        } catch (RuntimeException e) {
+            lease.close();
+            throw e;
+        }
+    }
+
+    private static Prefetched join(CompletableFuture<Prefetched> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private void addSamples(DescriptiveStatistics[] samples, FeatureAggregate agg) {
+        for (int metric = agg.nextMetric(0); metric >= 0; metric = agg.nextMetric(metric + 1)) {
+            if (samples[metric] == null) {
+                samples[metric] = new DescriptiveStatistics();
+            }
+            samples[metric].addValue(agg.mean(metric));
+        }
+    }
+
+    private ProDistro toDistro(String key, DescriptiveStatistics stats) {
         double p25 = stats.getPercentile(25);
         double p50 = stats.getPercentile(50);
         double p75 = stats.getPercentile(75);
@@ -88,4 +208,7 @@ public class BenchmarkService {
         return new ProDistroDto(distro.getMetricKey(), distro.getP25(), distro.getP50(), distro.getP75(),
                 distro.getMean(), distro.getStd(), distro.getUpdatedAt());
     }
+
+    private record Prefetched(List<TelemetryEvent> telemetry, MemoryBudget.Lease lease) {
+    }
 }
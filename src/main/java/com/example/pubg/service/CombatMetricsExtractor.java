@@ -0,0 +1,154 @@
+package com.example.pubg.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import com.example.pubg.dto.MetricRegistry;
+import com.example.pubg.dto.MetricVector;
+import com.example.pubg.util.GeoUtils;
+
+class CombatMetricsExtractor implements MetricExtractor {
+    private static final int KINDS = MetricExtractor.kinds(MatchColumns.ATTACK, MatchColumns.DAMAGE,
+            MatchColumns.KILL_OR_DOWN);
+
+    private final MatchColumns columns;
+    private final Rows combats;
+
+    // per-cluster scratch, reused across clusters
+    private double[] angles = new double[16];
+    private double[] xs = new double[16];
+    private double[] ys = new double[16];
+    /** Hits per interned victim in the current cluster; the last slot counts victims without an id. */
+    private int[] victimHits;
+    private int[] touchedVictims = new int[16];
+
+    CombatMetricsExtractor(MatchColumns columns) {
+        this.columns = columns;
+        this.combats = new Rows(columns);
+    }
+
+    @Override
+    public int kinds() {
+        return KINDS;
+    }
+
+    @Override
+    public void accept(int row) {
+        combats.add(row);
+    }
+
+    @Override
+    public void finish(MetricVector metrics) {
+        combats.sort();
+        victimHits = new int[columns.actorCount() + 1];
+
+        List<Double> angleVars = new ArrayList<>();
+        List<Double> spreads = new ArrayList<>();
+        List<Double> simulRates = new ArrayList<>();
+        List<Double> firstShotDistances = new ArrayList<>();
+        int downToKill = 0;
+        int downs = 0;
+
+        int size = combats.size();
+        int start = 0;
+        for (int end = 1; end <= size; end++) {
+            if (end < size && sameCluster(combats.get(end - 1), combats.get(end))) {
+                continue;
+            }
+            ensureCapacity(end - start);
+            int hits = 0;
+            int victims = 0;
+            long firstKill = Long.MAX_VALUE;
+            for (int i = start; i < end; i++) {
+                int row = combats.get(i);
+                if (columns.namesKill(row)) {
+                    firstKill = Math.min(firstKill, columns.timestamp(row));
+                }
+            }
+
+            for (int i = start; i < end; i++) {
+                int row = combats.get(i);
+                double attackerX = columns.x(row);
+                double attackerY = columns.y(row);
+                double victimX = columns.victimX(row);
+                double victimY = columns.victimY(row);
+                if (Double.isFinite(attackerX) && Double.isFinite(attackerY) && Double.isFinite(victimX)
+                        && Double.isFinite(victimY)) {
+                    angles[hits] = Math.toDegrees(Math.atan2(victimY - attackerY, victimX - attackerX));
+                    xs[hits] = attackerX;
+                    ys[hits] = attackerY;
+                    hits++;
+                    if (victims == 0) {
+                        firstShotDistances.add(GeoUtils.distance(attackerX, attackerY, victimX, victimY));
+                    }
+                    int victim = columns.victim(row);
+                    int slot = victim >= 0 ? victim : victimHits.length - 1;
+                    if (victimHits[slot]++ == 0) {
+                        touchedVictims[victims++] = slot;
+                    }
+                }
+                if (columns.namesDown(row)) {
+                    downs++;
+                    // the earliest kill of the cluster is the best candidate for converting this down
+                    if (firstKill != Long.MAX_VALUE && (firstKill - columns.timestamp(row)) / 1000 <= 10) {
+                        downToKill++;
+                    }
+                }
+            }
+            if (hits > 0) {
+                double mean = Arrays.stream(angles, 0, hits).average().orElse(0);
+                double variance = Arrays.stream(angles, 0, hits).map(a -> Math.pow(a - mean, 2)).average().orElse(0);
+                angleVars.add(Math.sqrt(variance));
+
+                double cx = Arrays.stream(xs, 0, hits).average().orElse(0);
+                double cy = Arrays.stream(ys, 0, hits).average().orElse(0);
+                double spread = IntStream.range(0, hits)
+                        .mapToDouble(k -> GeoUtils.distance(xs[k], ys[k], cx, cy))
+                        .average()
+                        .orElse(0);
+                spreads.add(spread);
+
+                int multi = 0;
+                for (int k = 0; k < victims; k++) {
+                    if (victimHits[touchedVictims[k]] >= 2) {
+                        multi++;
+                    }
+                    victimHits[touchedVictims[k]] = 0;
+                }
+                simulRates.add(multi / (double) victims);
+            }
+            start = end;
+        }
+
+        metrics.set(MetricRegistry.TEAM_ANGLE_VAR_DEG, safeAvg(angleVars));
+        metrics.set(MetricRegistry.TEAM_SPREAD_M, safeAvg(spreads));
+        metrics.set(MetricRegistry.SIMUL_FIRE_RATE, safeAvg(simulRates));
+        metrics.set(MetricRegistry.FIRST_SHOT_DISTANCE_M, safeAvg(firstShotDistances));
+        metrics.set(MetricRegistry.DTK_CONV_RATE, downs == 0 ? 0 : downToKill / (double) downs);
+    }
+
+    /**
+     * Consecutive combat events belong to one fight if they are at most ten seconds and 40 metres apart.
+     */
+    private boolean sameCluster(int last, int next) {
+        long dt = (columns.timestamp(next) - columns.timestamp(last)) / 1000;
+        double dist = GeoUtils.distance(columns.x(last), columns.y(last), columns.x(next), columns.y(next));
+        return dt <= 10 && dist <= 40;
+    }
+
+    private void ensureCapacity(int clusterSize) {
+        if (clusterSize > angles.length) {
+            int capacity = Math.max(clusterSize, angles.length * 2);
+            angles = new double[capacity];
+            xs = new double[capacity];
+            ys = new double[capacity];
+            touchedVictims = new int[capacity];
+        }
+    }
+
+    private double safeAvg(List<Double> list) {
+        return list.isEmpty() ? 0 : list.stream().mapToDouble(Double::doubleValue).average().orElse(0);
+    }
+}
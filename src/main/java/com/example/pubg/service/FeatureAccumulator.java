@@ -0,0 +1,153 @@
+package com.example.pubg.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import com.example.pubg.dto.FeatureAggregate;
+import com.example.pubg.dto.MatchMeta;
+import com.example.pubg.dto.MetricVector;
+import com.example.pubg.dto.TelemetryEvent;
+
+/**
+ * Computes one match's features while its telemetry streams in. Each event is appended to the match's
+ * {@link MatchColumns} and routed straight to the extractors. Match-wide extractors see every row of their
+ * registered kinds; player extractors only see the rows whose subject is their player. A row that no
+ * extractor receives is dropped again, so the columns hold only what the extractors keep: the selected
+ * players' positions and throws, but also a row for every combat event of the match, which the match-wide
+ * combat metrics need. Memory therefore still grows with the amount of fighting in the match.
+ * <p>
+ * Not thread-safe; one accumulator consumes one match.
+ */
+public final class FeatureAccumulator implements Consumer<TelemetryEvent> {
+    /** Row kinds whose subject is the player the row is about: the character, or the attacker of a hit. */
+    private static final int SUBJECT_KINDS = MetricExtractor.kinds(MatchColumns.POSITION, MatchColumns.ITEM_THROW,
+            MatchColumns.ATTACK, MatchColumns.DAMAGE);
+
+    private final boolean allPlayers;
+    private final MatchMeta meta;
+    private final MatchColumns columns;
+    private final MatchPhases phases;
+    private final CombatMetricsExtractor combat;
+    private final GrenadeChainExtractor grenadeChains;
+    private final MetricExtractor[][] matchRoutes;
+    private final Map<String, PlayerExtractors> players = new LinkedHashMap<>();
+    private PlayerExtractors[] byActor = new PlayerExtractors[128];
+
+    /**
+     * @param accountIds players to compute features for, or null for every player in the telemetry
+     * @param expectedRows initial row capacity of the columns
+     */
+    FeatureAccumulator(Set<String> accountIds, MatchMeta meta, int expectedRows) {
+        this.allPlayers = accountIds == null;
+        this.meta = meta;
+        this.columns = new MatchColumns(expectedRows);
+        this.phases = new MatchPhases(columns, meta);
+        this.combat = new CombatMetricsExtractor(columns);
+        this.grenadeChains = new GrenadeChainExtractor(columns);
+        this.matchRoutes = routes(phases, combat, grenadeChains);
+        if (accountIds != null) {
+            for (String id : accountIds) {
+                PlayerExtractors player = new PlayerExtractors(columns, meta, phases);
+                players.put(id, player);
+                register(columns.internActor(id), player);
+            }
+        }
+    }
+
+    @Override
+    public void accept(TelemetryEvent event) {
+        int row = columns.append(event);
+        if (!deliver(row)) {
+            columns.removeLast();
+        }
+    }
+
+    /**
+     * Finishes the match. The accumulator must not be fed afterwards.
+     */
+    public Map<String, FeatureAggregate> finish() {
+        MetricVector matchMetrics = new MetricVector();
+        phases.finish(matchMetrics);
+        combat.finish(matchMetrics);
+        grenadeChains.finish(matchMetrics);
+
+        Map<String, FeatureAggregate> result = new LinkedHashMap<>();
+        MetricVector metrics = new MetricVector();
+        players.forEach((id, player) -> {
+            metrics.clear();
+            metrics.putAll(matchMetrics);
+            player.phase.finish(metrics);
+            player.grenade.finish(metrics);
+            result.put(id, new FeatureAggregate(metrics));
+        });
+        return result;
+    }
+
+    private boolean deliver(int row) {
+        short kind = columns.kind(row);
+        MetricExtractor[] targets = matchRoutes[kind];
+        boolean delivered = deliver(targets, row);
+        int subject = columns.subject(row);
+        if (subject < 0 || (SUBJECT_KINDS & 1 << kind) == 0) {
+            return delivered;
+        }
+        PlayerExtractors player = subject < byActor.length ? byActor[subject] : null;
+        if (player == null && allPlayers) {
+            player = new PlayerExtractors(columns, meta, phases);
+            register(subject, player);
+            players.put(columns.actor(subject), player);
+        }
+        if (player != null) {
+            delivered |= deliver(player.routes[kind], row);
+        }
+        return delivered;
+    }
+
+    private void register(int actor, PlayerExtractors player) {
+        if (actor >= byActor.length) {
+            byActor = Arrays.copyOf(byActor, Math.max(actor + 1, byActor.length * 2));
+        }
+        byActor[actor] = player;
+    }
+
+    private static boolean deliver(MetricExtractor[] targets, int row) {
+        for (MetricExtractor extractor : targets) {
+            extractor.accept(row);
+        }
+        return targets.length > 0;
+    }
+
+    /**
+     * Extractors per row kind, in registration order.
+     */
+    private static MetricExtractor[][] routes(MetricExtractor... extractors) {
+        MetricExtractor[][] routes = new MetricExtractor[MatchColumns.KIND_COUNT][];
+        for (short kind = 0; kind < MatchColumns.KIND_COUNT; kind++) {
+            List<MetricExtractor> targets = new ArrayList<>();
+            for (MetricExtractor extractor : extractors) {
+                if ((extractor.kinds() & 1 << kind) != 0) {
+                    targets.add(extractor);
+                }
+            }
+            routes[kind] = targets.toArray(MetricExtractor[]::new);
+        }
+        return routes;
+    }
+
+    private static final class PlayerExtractors {
+        private final PhaseMetricsExtractor phase;
+        private final GrenadeMetricsExtractor grenade;
+        private final MetricExtractor[][] routes;
+
+        private PlayerExtractors(MatchColumns columns, MatchMeta meta, MatchPhases phases) {
+            this.phase = new PhaseMetricsExtractor(columns, phases);
+            this.grenade = new GrenadeMetricsExtractor(columns, meta);
+            this.routes = routes(phase, grenade);
+        }
+    }
+}
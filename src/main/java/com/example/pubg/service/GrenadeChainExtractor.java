@@ -0,0 +1,74 @@
+package com.example.pubg.service;
+
+import java.util.Arrays;
+
+import com.example.pubg.dto.MetricRegistry;
+import com.example.pubg.dto.MetricVector;
+
+/**
+ * Match-wide share of grenade damage that is followed by a down within ten seconds. Computed once per
+ * match and reported in every player's grenade metrics.
+ */
+class GrenadeChainExtractor implements MetricExtractor {
+    private static final int KINDS = MetricExtractor.kinds(MatchColumns.DAMAGE, MatchColumns.KILL_OR_DOWN);
+    private static final byte GRENADE = 1;
+    private static final byte OTHER = 2;
+
+    private final MatchColumns columns;
+    /** Interned damage categories classified so far: {@code GRENADE}, {@code OTHER}, or 0 if not seen yet. */
+    private byte[] categoryClasses = new byte[16];
+    private final Timestamps grenadeHitTimes = new Timestamps();
+    private final Timestamps downTimes = new Timestamps();
+
+    GrenadeChainExtractor(MatchColumns columns) {
+        this.columns = columns;
+    }
+
+    @Override
+    public int kinds() {
+        return KINDS;
+    }
+
+    @Override
+    public void accept(int row) {
+        if (columns.kind(row) == MatchColumns.DAMAGE) {
+            int category = columns.aux(row);
+            if (category >= 0 && isGrenade(category)) {
+                grenadeHitTimes.add(columns.timestamp(row));
+            }
+        } else if (columns.namesDown(row)) {
+            downTimes.add(columns.timestamp(row));
+        }
+    }
+
+    /**
+     * Classifies each damage category once per match rather than once per hit.
+     */
+    private boolean isGrenade(int category) {
+        if (category >= categoryClasses.length) {
+            categoryClasses = Arrays.copyOf(categoryClasses, Math.max(category + 1, categoryClasses.length * 2));
+        }
+        if (categoryClasses[category] == 0) {
+            boolean grenade = columns.category(category).toLowerCase().contains("grenade");
+            categoryClasses[category] = grenade ? GRENADE : OTHER;
+        }
+        return categoryClasses[category] == GRENADE;
+    }
+
+    @Override
+    public void finish(MetricVector metrics) {
+        downTimes.sort();
+        int grenadeToDown = 0;
+        for (int i = 0; i < grenadeHitTimes.size(); i++) {
+            long hitTime = grenadeHitTimes.get(i);
+            // the earliest down at or after the hit is the only candidate that can fall inside the window
+            int next = downTimes.lowerBound(hitTime);
+            if (next < downTimes.size() && (downTimes.get(next) - hitTime) / 1000 <= 10) {
+                grenadeToDown++;
+            }
+        }
+        int grenadeHits = grenadeHitTimes.size();
+        metrics.set(MetricRegistry.NADE_TO_DOWN_CHAIN_RATE,
+                grenadeHits == 0 ? 0 : grenadeToDown / (double) grenadeHits);
+    }
+}
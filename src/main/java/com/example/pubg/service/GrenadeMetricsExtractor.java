@@ -0,0 +1,112 @@
+package com.example.pubg.service;
+
+import com.example.pubg.dto.MatchMeta;
+import com.example.pubg.dto.MetricRegistry;
+import com.example.pubg.dto.MetricVector;
+
+/**
+ * Grenade usage of one player. Only sees the rows whose subject is that player. The match-wide grenade
+ * chain rate comes from {@link GrenadeChainExtractor}.
+ */
+class GrenadeMetricsExtractor implements MetricExtractor {
+    private static final int KINDS = MetricExtractor.kinds(MatchColumns.POSITION, MatchColumns.ITEM_THROW,
+            MatchColumns.ATTACK, MatchColumns.DAMAGE);
+
+    private final MatchColumns columns;
+    private final long matchDuration;
+    private int frag;
+    private int smoke;
+    private int flash;
+    private int molotov;
+    private final Timestamps grenadeTimes = new Timestamps();
+    private final Timestamps combatTimes = new Timestamps();
+    private long firstSeen = Long.MAX_VALUE;
+    private long lastSeen = Long.MIN_VALUE;
+
+    GrenadeMetricsExtractor(MatchColumns columns, MatchMeta meta) {
+        this.columns = columns;
+        this.matchDuration = meta.durationSeconds();
+    }
+
+    @Override
+    public int kinds() {
+        return KINDS;
+    }
+
+    @Override
+    public void accept(int row) {
+        switch (columns.kind(row)) {
+            case MatchColumns.POSITION -> track(row);
+            case MatchColumns.ITEM_THROW -> {
+                track(row);
+                countThrow(row);
+            }
+            default -> combatTimes.add(columns.timestamp(row));
+        }
+    }
+
+    @Override
+    public void finish(MetricVector metrics) {
+        grenadeTimes.sort();
+
+        double surviveSeconds = matchDuration > 0 ? matchDuration : firstSeen > lastSeen
+                ? 1
+                : (lastSeen - firstSeen) / 1000;
+        double norm = surviveSeconds / 600.0;
+        norm = norm == 0 ? 1 : norm;
+
+        double firstGrenadeDelay = 0;
+        if (grenadeTimes.size() > 0 && combatTimes.size() > 0) {
+            long firstCombat = combatTimes.min();
+            long firstGrenade = grenadeTimes.get(0);
+            firstGrenadeDelay = (firstGrenade - firstCombat) / 1000.0;
+        }
+
+        long pushes = combatTimes.size();
+        long prePush = 0;
+        for (int i = 0; i < combatTimes.size(); i++) {
+            if (hasGrenadeNearby(combatTimes.get(i))) {
+                prePush++;
+            }
+        }
+
+        metrics.set(MetricRegistry.FRAG_PER_10M, frag / norm);
+        metrics.set(MetricRegistry.SMOKE_PER_10M, smoke / norm);
+        metrics.set(MetricRegistry.FLASH_PER_10M, flash / norm);
+        metrics.set(MetricRegistry.MOLOTOV_PER_10M, molotov / norm);
+        metrics.set(MetricRegistry.FIRST_GRENADE_DELAY_S, firstGrenadeDelay);
+        metrics.set(MetricRegistry.PRE_PUSH_GRENADE_RATE, pushes == 0 ? 0 : prePush / (double) pushes);
+    }
+
+    private boolean hasGrenadeNearby(long combatTime) {
+        int next = grenadeTimes.lowerBound(combatTime);
+        if (next < grenadeTimes.size() && Math.abs(combatTime - grenadeTimes.get(next)) / 1000 <= 3) {
+            return true;
+        }
+        return next > 0 && Math.abs(combatTime - grenadeTimes.get(next - 1)) / 1000 <= 3;
+    }
+
+    private void countThrow(int row) {
+        int category = columns.aux(row);
+        String sub = category >= 0 ? columns.category(category) : "";
+        grenadeTimes.add(columns.timestamp(row));
+        if (sub.contains("Grenade")) {
+            frag++;
+        } else if (sub.contains("Smoke")) {
+            smoke++;
+        } else if (sub.contains("Flash")) {
+            flash++;
+        } else if (sub.contains("Molotov")) {
+            molotov++;
+        }
+    }
+
+    private void track(int row) {
+        if (!columns.hasLocation(row)) {
+            return;
+        }
+        long timestamp = columns.timestamp(row);
+        firstSeen = Math.min(firstSeen, timestamp);
+        lastSeen = Math.max(lastSeen, timestamp);
+    }
+}
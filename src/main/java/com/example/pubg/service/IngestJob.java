@@ -0,0 +1,86 @@
+package com.example.pubg.service;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.example.pubg.dto.IngestJobStatus;
+import com.example.pubg.dto.IngestJobStatus.State;
+import com.example.pubg.dto.IngestRequest;
+import com.example.pubg.dto.IngestResponse;
+
+/**
+ * Mutable state of one background ingest. Written by the ingest threads, read by status polls.
+ */
+class IngestJob implements IngestProgress {
+    private final String id;
+    private final IngestRequest request;
+    private final Instant submittedAt = Instant.now();
+    private final AtomicInteger processed = new AtomicInteger();
+    private final List<String> failedMatchIds = new CopyOnWriteArrayList<>();
+    private volatile State state = State.QUEUED;
+    private volatile String accountId;
+    private volatile int totalMatches;
+    private volatile String error;
+    private volatile IngestResponse result;
+    private volatile Instant finishedAt;
+
+    IngestJob(String id, IngestRequest request) {
+        this.id = id;
+        this.request = request;
+    }
+
+    String id() {
+        return id;
+    }
+
+    IngestRequest request() {
+        return request;
+    }
+
+    void running() {
+        state = State.RUNNING;
+    }
+
+    @Override
+    public void started(String accountId, int totalMatches) {
+        this.accountId = accountId;
+        this.totalMatches = totalMatches;
+    }
+
+    @Override
+    public void matchProcessed(String matchId) {
+        processed.incrementAndGet();
+    }
+
+    @Override
+    public void matchFailed(String matchId) {
+        failedMatchIds.add(matchId);
+    }
+
+    void succeeded(IngestResponse response) {
+        result = response;
+        finish(State.SUCCEEDED);
+    }
+
+    void failed(Throwable cause) {
+        error = cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+        finish(State.FAILED);
+    }
+
+    private void finish(State finalState) {
+        finishedAt = Instant.now();
+        state = finalState;
+    }
+
+    boolean finishedBefore(Instant cutoff) {
+        Instant finished = finishedAt;
+        return finished != null && finished.isBefore(cutoff);
+    }
+
+    IngestJobStatus status() {
+        return new IngestJobStatus(id, state, accountId, totalMatches, processed.get(), List.copyOf(failedMatchIds),
+                error, result, submittedAt, finishedAt);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.pubg.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.pubg.dto.IngestJobStatus;
+import com.example.pubg.dto.IngestRequest;
+
+/**
+ * Runs ingests in the background so the HTTP request only enqueues work. Job state is kept in memory
+ * and dropped once the retention period after the job finishes has passed, by a periodic sweep or by
+ * the first status poll after that.
+ */
+@Service
+public class IngestJobService {
+    private static final Logger log = LoggerFactory.getLogger(IngestJobService.class);
+
+    private final IngestService ingestService;
+    private final ExecutorService jobExecutor;
+    private final Duration retention;
+    private final Map<String, IngestJob> jobs = new ConcurrentHashMap<>();
+
+    public IngestJobService(IngestService ingestService, @Qualifier("ingestJobExecutor") ExecutorService jobExecutor,
+            @Value("${pubg.ingest.job-retention-minutes:60}") long retentionMinutes) {
+        this.ingestService = ingestService;
+        this.jobExecutor = jobExecutor;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+    }
+
+    public IngestJobStatus submit(IngestRequest request) {
+        IngestJob job = new IngestJob(UUID.randomUUID().toString(), request);
+        jobs.put(job.id(), job);
+        jobExecutor.execute(() -> run(job));
+        log.info("Queued ingest job={} nickname={}", job.id(), request.getNickname());
+        return job.status();
+    }
+
+    public Optional<IngestJobStatus> status(String jobId) {
+        IngestJob job = jobs.get(jobId);
+        if (job != null && job.finishedBefore(cutoff())) {
+            jobs.remove(jobId, job);
+            return Optional.empty();
+        }
+        return Optional.ofNullable(job).map(IngestJob::status);
+    }
+
+    private void run(IngestJob job) {
+        job.running();
+        try {
+            job.succeeded(ingestService.ingestRecentMatches(job.request(), job));
+            log.info("Ingest job={} finished", job.id());
+        } catch (RuntimeException e) {
+            log.error("Ingest job={} failed", job.id(), e);
+            job.failed(e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${pubg.ingest.job-eviction-ms:60000}")
+    void evictExpired() {
+        Instant cutoff = cutoff();
+        jobs.values().removeIf(job -> job.finishedBefore(cutoff));
+    }
+
+    private Instant cutoff() {
+        return Instant.now().minus(retention);
+    }
+}
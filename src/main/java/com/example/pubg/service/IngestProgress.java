@@ -0,0 +1,19 @@
+package com.example.pubg.service;
+
+/**
+ * Receives progress callbacks while an ingest runs. Match callbacks arrive from worker threads in
+ * completion order.
+ */
+interface IngestProgress {
+    IngestProgress NONE = new IngestProgress() {
+    };
+
+    default void started(String accountId, int totalMatches) {
+    }
+
+    default void matchProcessed(String matchId) {
+    }
+
+    default void matchFailed(String matchId) {
+    }
+}
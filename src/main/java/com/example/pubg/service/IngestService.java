@@ -2,19 +2,25 @@ package com.example.pubg.service;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import com.example.pubg.client.PubgApiClient;
 import com.example.pubg.client.TelemetryClient;
+import com.example.pubg.client.TelemetryProjection;
 import com.example.pubg.dto.FeatureAggregate;
 import com.example.pubg.dto.IngestRequest;
 import com.example.pubg.dto.IngestResponse;
 import com.example.pubg.dto.MatchMeta;
+import com.example.pubg.util.MemoryBudget;
+import com.example.pubg.util.RequestPriority;
 
 @Service
 public class IngestService {
@@ -24,39 +30,88 @@ public class IngestService {
     private final TelemetryClient telemetryClient;
     private final FeatureService featureService;
     private final UserFeatureStore store;
+    private final ExecutorService ingestExecutor;
+    private final TelemetryAdmission admission;
 
     public IngestService(PubgApiClient pubgApiClient, TelemetryClient telemetryClient, FeatureService featureService,
-            UserFeatureStore store) {
+            UserFeatureStore store, @Qualifier("ingestExecutor") ExecutorService ingestExecutor,
+            TelemetryAdmission admission) {
         this.pubgApiClient = pubgApiClient;
         this.telemetryClient = telemetryClient;
         this.featureService = featureService;
         this.store = store;
+        this.ingestExecutor = ingestExecutor;
+        this.admission = admission;
     }
 
-    @Transactional
+    /**
+     * Downloads and processes the recent matches concurrently on the ingest pool. API calls still go
+     * through the shared rate limiter. Features are merged in match order, and a failed match is
+     * reported instead of aborting the batch.
+     */
     public IngestResponse ingestRecentMatches(IngestRequest request) {
+        return ingestRecentMatches(request, IngestProgress.NONE);
+    }
+
+    IngestResponse ingestRecentMatches(IngestRequest request, IngestProgress progress) {
         String accountId = pubgApiClient.findAccountId(request.getNickname());
         List<MatchMeta> metas = pubgApiClient.fetchRecentMatches(accountId, request.getMatchCount());
         log.info("Found {} recent matches for accountId={}", metas.size(), accountId);
+        progress.started(accountId, metas.size());
+
+        RequestPriority priority = RequestPriority.current();
+        List<CompletableFuture<FeatureAggregate>> pending = new ArrayList<>();
+        for (MatchMeta meta : metas) {
+            pending.add(CompletableFuture.supplyAsync(() -> processMatch(accountId, meta, priority), ingestExecutor)
+                    .whenComplete((features, error) -> {
+                        if (error == null) {
+                            progress.matchProcessed(meta.matchId());
+                        } else {
+                            progress.matchFailed(meta.matchId());
+                        }
+                    }));
+        }
+
         FeatureAggregate aggregate = null;
         List<String> processedMatches = new ArrayList<>();
-        log.info("1");
-        for (MatchMeta meta : metas) {
+        List<String> failedMatches = new ArrayList<>();
+        for (int i = 0; i < metas.size(); i++) {
+            MatchMeta meta = metas.get(i);
             try {
-                log.info("Fetching telemetry for matchId={} url={}", meta.matchId(), meta.telemetryUrl());
-                List<Map<String, Object>> telemetry = telemetryClient.fetchTelemetry(meta.telemetryUrl());
-                FeatureAggregate features = featureService.computeFeatures(accountId, meta, telemetry);
+                FeatureAggregate features = pending.get(i).join();
                 aggregate = aggregate == null ? features : aggregate.merge(features);
                 processedMatches.add(meta.matchId());
-                log.info("Processed matchId={}", meta.matchId());
-            } catch (Exception e) {
-                log.error("Telemetry fetch failed for matchId={} url={}", meta.matchId(), meta.telemetryUrl(), e);
-                throw e;
+            } catch (CompletionException e) {
+                log.error("Telemetry processing failed for matchId={} url={}", meta.matchId(), meta.telemetryUrl(),
+                        e.getCause());
+                failedMatches.add(meta.matchId());
             }
         }
         if (aggregate != null) {
             store.put(accountId, aggregate);
         }
-        return new IngestResponse(accountId, processedMatches);
+        return new IngestResponse(accountId, processedMatches, failedMatches);
+    }
+
+    /**
+     * Streams the match's telemetry into a feature accumulator, so parsing and feature computation overlap
+     * on a download; the raw payload goes to the archive, so only the accumulator grows with the match.
+     * Memory budget is reserved before the match joins a download and held until its features are
+     * finished. A match that cannot be admitted fails on its own, and nothing waits for budget while
+     * holding a shared download that other callers are waiting on.
+     */
+    private FeatureAggregate processMatch(String accountId, MatchMeta meta, RequestPriority priority) {
+        MemoryBudget.Lease lease = admission.admit(meta.matchId());
+        try {
+            log.info("Fetching telemetry for matchId={} url={}", meta.matchId(), meta.telemetryUrl());
+            FeatureAccumulator accumulator = RequestPriority.call(priority, () -> telemetryClient.streamTelemetry(
+                    meta, TelemetryProjection.of(List.of(accountId)),
+                    () -> featureService.newAccumulator(Set.of(accountId), meta)));
+            FeatureAggregate features = accumulator.finish().get(accountId);
+            log.info("Processed matchId={}", meta.matchId());
+            return features;
+        } finally {
+            lease.close();
+        }
     }
 }
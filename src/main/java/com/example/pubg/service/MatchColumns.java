@@ -0,0 +1,275 @@
+package com.example.pubg.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+import com.example.pubg.dto.TelemetryEvent;
+import com.example.pubg.dto.TelemetryEvent.Actor;
+import com.example.pubg.util.TelemetrySymbols;
+
+/**
+ * One match's telemetry as parallel primitive columns, one row per event in arrival order. Rows are
+ * appended as events stream in, and a reader may drop rows it has no use for. Actors and
+ * category strings are dense codes from the match's {@link TelemetrySymbols}, so extractors compare and
+ * index by int and never touch the event objects.
+ * <p>
+ * The subject columns ({@code subject}, {@code x}, {@code y}, {@code z}) hold the character of position
+ * and throw events and the attacker of combat events. Phase rows put the zone centre in {@code x} and
+ * {@code y} and its radius in {@code z}, with the phase number in {@code aux}. For throw and damage rows
+ * {@code aux} is the interned sub-category or damage category, or -1.
+ */
+public final class MatchColumns {
+    public static final short POSITION = 0;
+    public static final short PHASE_CHANGE = 1;
+    public static final short ITEM_THROW = 2;
+    public static final short ATTACK = 3;
+    public static final short DAMAGE = 4;
+    public static final short KILL_OR_DOWN = 5;
+    public static final int KIND_COUNT = 6;
+
+    private static final byte IN_VEHICLE = 1;
+    private static final byte KILL_TYPE = 2;
+    private static final byte DOWN_TYPE = 4;
+
+    private final TelemetrySymbols symbols = new TelemetrySymbols();
+    private int size;
+    private short[] kinds;
+    private long[] timestamps;
+    private byte[] flags;
+    private int[] subjects;
+    private float[] xs;
+    private float[] ys;
+    private float[] zs;
+    private int[] victims;
+    private float[] victimXs;
+    private float[] victimYs;
+    private int[] aux;
+
+    MatchColumns(int capacity) {
+        int n = Math.max(16, capacity);
+        kinds = new short[n];
+        timestamps = new long[n];
+        flags = new byte[n];
+        subjects = new int[n];
+        xs = new float[n];
+        ys = new float[n];
+        zs = new float[n];
+        victims = new int[n];
+        victimXs = new float[n];
+        victimYs = new float[n];
+        aux = new int[n];
+    }
+
+    public static MatchColumns of(List<TelemetryEvent> telemetry) {
+        MatchColumns columns = new MatchColumns(telemetry.size());
+        for (TelemetryEvent event : telemetry) {
+            columns.append(event);
+        }
+        return columns;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public short kind(int row) {
+        return kinds[row];
+    }
+
+    public long timestamp(int row) {
+        return timestamps[row];
+    }
+
+    public boolean inVehicle(int row) {
+        return (flags[row] & IN_VEHICLE) != 0;
+    }
+
+    /**
+     * Whether the event type name of the row mentions a kill.
+     */
+    boolean namesKill(int row) {
+        return (flags[row] & KILL_TYPE) != 0;
+    }
+
+    /**
+     * Whether the event type name of the row mentions a down; for kill-or-down rows this is a down.
+     */
+    boolean namesDown(int row) {
+        return (flags[row] & DOWN_TYPE) != 0;
+    }
+
+    /**
+     * Interned actor of the row, or -1.
+     */
+    public int subject(int row) {
+        return subjects[row];
+    }
+
+    public float x(int row) {
+        return xs[row];
+    }
+
+    public float y(int row) {
+        return ys[row];
+    }
+
+    public float z(int row) {
+        return zs[row];
+    }
+
+    /**
+     * Whether the subject of the row has a known location.
+     */
+    public boolean hasLocation(int row) {
+        return !Float.isNaN(xs[row]) && !Float.isNaN(ys[row]);
+    }
+
+    public int victim(int row) {
+        return victims[row];
+    }
+
+    public float victimX(int row) {
+        return victimXs[row];
+    }
+
+    public float victimY(int row) {
+        return victimYs[row];
+    }
+
+    public int aux(int row) {
+        return aux[row];
+    }
+
+    public int actorCount() {
+        return symbols.actorCount();
+    }
+
+    public String actor(int index) {
+        return symbols.actorId(index);
+    }
+
+    /**
+     * Dense index of the actor with the given id, or -1 if it does not occur in the match.
+     */
+    public int actorIndex(String id) {
+        return symbols.findActor(id);
+    }
+
+    public int categoryCount() {
+        return symbols.categoryCount();
+    }
+
+    public String category(int index) {
+        return symbols.categoryName(index);
+    }
+
+    /**
+     * Appends the event as a new row and returns its index.
+     */
+    int append(TelemetryEvent event) {
+        if (size == kinds.length) {
+            grow(size * 2);
+        }
+        int row = size++;
+        timestamps[row] = event.timestamp();
+        flags[row] = 0;
+        victims[row] = -1;
+        victimXs[row] = Float.NaN;
+        victimYs[row] = Float.NaN;
+        aux[row] = -1;
+        if (event instanceof TelemetryEvent.Position position) {
+            kinds[row] = POSITION;
+            subject(row, position.character());
+        } else if (event instanceof TelemetryEvent.PhaseChange phase) {
+            kinds[row] = PHASE_CHANGE;
+            subjects[row] = -1;
+            xs[row] = phase.x();
+            ys[row] = phase.y();
+            zs[row] = phase.radius();
+            aux[row] = phase.phase();
+        } else if (event instanceof TelemetryEvent.ItemThrow itemThrow) {
+            kinds[row] = ITEM_THROW;
+            subject(row, itemThrow.character());
+            aux[row] = category(itemThrow.subCategory());
+        } else if (event instanceof TelemetryEvent.Attack attack) {
+            kinds[row] = ATTACK;
+            combat(row, attack.typeFlags(), attack.attacker(), attack.victim());
+        } else if (event instanceof TelemetryEvent.Damage damage) {
+            kinds[row] = DAMAGE;
+            combat(row, damage.typeFlags(), damage.attacker(), damage.victim());
+            aux[row] = category(damage.damageTypeCategory());
+        } else if (event instanceof TelemetryEvent.KillOrDown killOrDown) {
+            kinds[row] = KILL_OR_DOWN;
+            combat(row, killOrDown.typeFlags(), killOrDown.attacker(), killOrDown.victim());
+        }
+        return row;
+    }
+
+    /**
+     * Drops the most recently appended row, for a caller that found no use for it.
+     */
+    void removeLast() {
+        size--;
+    }
+
+    /**
+     * Registers an actor id ahead of its first row and returns its index.
+     */
+    int internActor(String id) {
+        return symbols.actor(id);
+    }
+
+    private void subject(int row, Actor actor) {
+        subjects[row] = actor(actor);
+        xs[row] = actor != null ? actor.x() : Float.NaN;
+        ys[row] = actor != null ? actor.y() : Float.NaN;
+        zs[row] = actor != null ? actor.z() : Float.NaN;
+        if (actor != null && actor.inVehicle()) {
+            flags[row] |= IN_VEHICLE;
+        }
+    }
+
+    private void combat(int row, int typeFlags, Actor attacker, Actor victim) {
+        subject(row, attacker);
+        victims[row] = actor(victim);
+        if (victim != null) {
+            victimXs[row] = victim.x();
+            victimYs[row] = victim.y();
+        }
+        if ((typeFlags & TelemetrySymbols.TYPE_KILL) != 0) {
+            flags[row] |= KILL_TYPE;
+        }
+        if ((typeFlags & TelemetrySymbols.TYPE_DOWN) != 0) {
+            flags[row] |= DOWN_TYPE;
+        }
+    }
+
+    private int actor(Actor actor) {
+        String id = actor != null ? actor.id() : null;
+        if (id == null) {
+            return -1;
+        }
+        return symbols.actor(id);
+    }
+
+    private int category(String value) {
+        if (value == null) {
+            return -1;
+        }
+        return symbols.category(value);
+    }
+
+    private void grow(int capacity) {
+        kinds = Arrays.copyOf(kinds, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        flags = Arrays.copyOf(flags, capacity);
+        subjects = Arrays.copyOf(subjects, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        zs = Arrays.copyOf(zs, capacity);
+        victims = Arrays.copyOf(victims, capacity);
+        victimXs = Arrays.copyOf(victimXs, capacity);
+        victimYs = Arrays.copyOf(victimYs, capacity);
+        aux = Arrays.copyOf(aux, capacity);
+    }
+}
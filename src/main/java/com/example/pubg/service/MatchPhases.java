@@ -0,0 +1,63 @@
+package com.example.pubg.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.example.pubg.dto.MatchMeta;
+import com.example.pubg.dto.MetricVector;
+
+/**
+ * Collects the match's safe-zone phases once so every player's {@link PhaseMetricsExtractor} can share them.
+ * Contributes no metrics of its own.
+ */
+class MatchPhases implements MetricExtractor {
+    private static final int KINDS = MetricExtractor.kinds(MatchColumns.PHASE_CHANGE);
+
+    private final MatchColumns columns;
+    private final long matchDuration;
+    private final List<PhaseInfo> phases = new ArrayList<>();
+
+    MatchPhases(MatchColumns columns, MatchMeta meta) {
+        this.columns = columns;
+        this.matchDuration = meta.durationSeconds();
+    }
+
+    @Override
+    public int kinds() {
+        return KINDS;
+    }
+
+    @Override
+    public void accept(int row) {
+        phases.add(new PhaseInfo(columns.aux(row), columns.timestamp(row), columns.x(row), columns.y(row),
+                columns.z(row)));
+    }
+
+    @Override
+    public void finish(MetricVector metrics) {
+        if (phases.isEmpty()) {
+            // fallback to evenly split phases if telemetry lacks explicit phase data
+            int defaultPhases = 8;
+            long segment = matchDuration / defaultPhases;
+            for (int i = 0; i < defaultPhases; i++) {
+                phases.add(new PhaseInfo(i + 1, segment * i * 1000, 0, 0, 1000));
+            }
+        }
+        phases.sort(Comparator.comparingLong(PhaseInfo::timestamp));
+    }
+
+    /**
+     * Phases in time order; only valid after {@link #finish(MetricVector)}.
+     */
+    List<PhaseInfo> phases() {
+        return phases;
+    }
+
+    long matchDuration() {
+        return matchDuration;
+    }
+
+    record PhaseInfo(int phase, long timestamp, double x, double y, double radius) {
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.pubg.service;
+
+import com.example.pubg.dto.MetricVector;
+
+/**
+ * One metric family computed during the single pass over a match's {@link MatchColumns} in
+ * {@link FeatureAccumulator}. An extractor only receives the rows of the kinds it registers and writes its
+ * metrics into the player's {@link MetricVector} once the pass is done.
+ */
+interface MetricExtractor {
+    /**
+     * Bit set of the {@link MatchColumns} kinds this extractor reads, one bit per kind.
+     */
+    int kinds();
+
+    void accept(int row);
+
+    void finish(MetricVector metrics);
+
+    static int kinds(short... kinds) {
+        int mask = 0;
+        for (short kind : kinds) {
+            mask |= 1 << kind;
+        }
+        return mask;
+    }
+}
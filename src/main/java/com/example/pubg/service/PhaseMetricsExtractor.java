@@ -0,0 +1,102 @@
+package com.example.pubg.service;
+
+import java.util.List;
+
+import com.example.pubg.dto.MetricRegistry;
+import com.example.pubg.dto.MetricVector;
+import com.example.pubg.service.MatchPhases.PhaseInfo;
+import com.example.pubg.util.GeoUtils;
+
+/**
+ * Positioning metrics of one player for each phase collected by the shared {@link MatchPhases}. Only sees
+ * the rows whose subject is that player. Phases outside
+ * the {@link MetricRegistry} schema are skipped.
+ */
+class PhaseMetricsExtractor implements MetricExtractor {
+    private static final int KINDS = MetricExtractor.kinds(MatchColumns.POSITION, MatchColumns.ITEM_THROW);
+
+    private final MatchColumns columns;
+    private final MatchPhases matchPhases;
+    private final Rows timeline;
+
+    PhaseMetricsExtractor(MatchColumns columns, MatchPhases matchPhases) {
+        this.columns = columns;
+        this.matchPhases = matchPhases;
+        this.timeline = new Rows(columns);
+    }
+
+    @Override
+    public int kinds() {
+        return KINDS;
+    }
+
+    @Override
+    public void accept(int row) {
+        if (columns.hasLocation(row)) {
+            timeline.add(row);
+        }
+    }
+
+    @Override
+    public void finish(MetricVector metrics) {
+        timeline.sort();
+        List<PhaseInfo> phases = matchPhases.phases();
+        long matchDuration = matchPhases.matchDuration();
+
+        for (int i = 0; i < phases.size(); i++) {
+            PhaseInfo phase = phases.get(i);
+            long phaseEnd = (i + 1 < phases.size()) ? phases.get(i + 1).timestamp()
+                    : phase.timestamp() + matchDuration / Math.max(1, phases.size()) * 1000;
+            int from = timeline.lowerBound(phase.timestamp());
+            int to = timeline.lowerBound(phaseEnd);
+            int base = MetricRegistry.phase(phase.phase(), 0);
+            if (from >= to || base < 0) {
+                continue;
+            }
+            double radius = phase.radius() > 0 ? phase.radius() : 1;
+            double enterDelay = computeEnterDelay(from, to, phase, phaseEnd);
+            double centerDistance = 0;
+            for (int j = from; j < to; j++) {
+                centerDistance += GeoUtils.distance(timeline.x(j), timeline.y(j), phase.x(), phase.y()) / radius;
+            }
+            double centerBias = centerDistance / (to - from);
+            double rotationDistance = 0;
+            double blueExposure = 0;
+            boolean enteredWithVehicle = false;
+            for (int j = from + 1; j < to; j++) {
+                double prevX = timeline.x(j - 1);
+                double prevY = timeline.y(j - 1);
+                double dist = GeoUtils.distance(prevX, prevY, timeline.x(j), timeline.y(j));
+                rotationDistance += dist;
+                boolean prevInBlue = GeoUtils.distance(prevX, prevY, phase.x(), phase.y()) > radius;
+                if (prevInBlue) {
+                    long dt = timeline.timestamp(j) - timeline.timestamp(j - 1);
+                    blueExposure += dt / 1000.0;
+                }
+                if (!enteredWithVehicle && !prevInBlue && timeline.inVehicle(j)) {
+                    enteredWithVehicle = true;
+                }
+            }
+            double phaseDuration = (phaseEnd - phase.timestamp()) / 1000.0;
+            double avgSpeed = phaseDuration > 0 ? rotationDistance / phaseDuration : 0;
+            metrics.set(base + MetricRegistry.ENTER_DELAY_S, enterDelay);
+            metrics.set(base + MetricRegistry.CENTER_BIAS, GeoUtils.clamp(centerBias, 0, 2));
+            metrics.set(base + MetricRegistry.ROTATION_DISTANCE_M, rotationDistance);
+            metrics.set(base + MetricRegistry.AVG_SPEED_MPS, avgSpeed);
+            metrics.set(base + MetricRegistry.ENTERED_WITH_VEHICLE, enteredWithVehicle ? 1.0 : 0.0);
+            metrics.set(base + MetricRegistry.BLUE_EXPOSURE_S_PHASE, blueExposure);
+        }
+    }
+
+    private double computeEnterDelay(int from, int to, PhaseInfo phase, long phaseEnd) {
+        long enter = phaseEnd;
+        for (int j = from; j < to; j++) {
+            double dist = GeoUtils.distance(timeline.x(j), timeline.y(j), phase.x(), phase.y());
+            if (dist <= Math.max(1, phase.radius())) {
+                enter = timeline.timestamp(j);
+                break;
+            }
+        }
+        return (enter - phase.timestamp()) / 1000.0;
+    }
+}
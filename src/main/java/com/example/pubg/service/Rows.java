@@ -0,0 +1,97 @@
+package com.example.pubg.service;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of row indices into a {@link MatchColumns}, so an extractor can keep the events it cares
+ * about without copying them. Once sorted by time, a time window is an index range found by binary search.
+ */
+class Rows {
+    private final MatchColumns columns;
+    private int[] rows = new int[64];
+    private int size;
+    private boolean sorted = true;
+
+    Rows(MatchColumns columns) {
+        this.columns = columns;
+    }
+
+    void add(int row) {
+        if (size == rows.length) {
+            rows = Arrays.copyOf(rows, size * 2);
+        }
+        if (size > 0 && columns.timestamp(row) < columns.timestamp(rows[size - 1])) {
+            sorted = false;
+        }
+        rows[size++] = row;
+    }
+
+    /**
+     * Stable sort by timestamp. Telemetry is normally chronological already, in which case this is free.
+     * Otherwise each row is packed into a long as {@code rank of its timestamp << 32 | position} and the
+     * longs are sorted, so equal timestamps keep their order and nothing is boxed.
+     */
+    void sort() {
+        if (sorted) {
+            return;
+        }
+        long[] times = new long[size];
+        for (int i = 0; i < size; i++) {
+            times[i] = columns.timestamp(rows[i]);
+        }
+        long[] ranks = times.clone();
+        Arrays.sort(ranks);
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = (long) Arrays.binarySearch(ranks, times[i]) << 32 | i;
+        }
+        Arrays.sort(keys);
+        int[] ordered = new int[rows.length];
+        for (int i = 0; i < size; i++) {
+            ordered[i] = rows[(int) keys[i]];
+        }
+        rows = ordered;
+        sorted = true;
+    }
+
+    /**
+     * Index of the first row not before {@code time}; only valid after {@link #sort()}.
+     */
+    int lowerBound(long time) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (columns.timestamp(rows[mid]) < time) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int get(int index) {
+        return rows[index];
+    }
+
+    long timestamp(int index) {
+        return columns.timestamp(rows[index]);
+    }
+
+    float x(int index) {
+        return columns.x(rows[index]);
+    }
+
+    float y(int index) {
+        return columns.y(rows[index]);
+    }
+
+    boolean inVehicle(int index) {
+        return columns.inVehicle(rows[index]);
+    }
+}
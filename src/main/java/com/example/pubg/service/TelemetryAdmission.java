@@ -0,0 +1,49 @@
+package com.example.pubg.service;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.example.pubg.client.PubgApiException;
+import com.example.pubg.util.MemoryBudget;
+
+/**
+ * Admits per-match telemetry work against the shared {@link MemoryBudget}. Each match reserves the
+ * configured estimate up front; callers that learn the real footprint can resize the lease.
+ */
+@Component
+class TelemetryAdmission {
+    private final MemoryBudget budget;
+    private final long matchEstimateBytes;
+    private final Duration maxWait;
+
+    TelemetryAdmission(MemoryBudget budget,
+            @Value("${pubg.memory.match-estimate-bytes:33554432}") long matchEstimateBytes,
+            @Value("${pubg.memory.max-wait-ms:120000}") long maxWaitMs) {
+        this.budget = budget;
+        this.matchEstimateBytes = matchEstimateBytes;
+        this.maxWait = Duration.ofMillis(maxWaitMs);
+    }
+
+    MemoryBudget.Lease admit(String matchId) {
+        try {
+            MemoryBudget.Lease lease = budget.acquire(matchEstimateBytes, maxWait);
+            if (lease == null) {
+                throw new PubgApiException("No memory budget for matchId=" + matchId + " within "
+                        + maxWait.toMillis() + "ms");
+            }
+            return lease;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new PubgApiException("Interrupted while waiting for memory budget", e);
+        }
+    }
+
+    /**
+     * Admits only if the budget has room right now; null otherwise.
+     */
+    MemoryBudget.Lease tryAdmit() {
+        return budget.tryAcquire(matchEstimateBytes);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.pubg.service;
+
+import java.util.Arrays;
+
+/**
+ * Growable primitive buffer of epoch-millisecond timestamps.
+ */
+class Timestamps {
+    private long[] values = new long[16];
+    private int size;
+
+    void add(long value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = value;
+    }
+
+    long get(int index) {
+        return values[index];
+    }
+
+    int size() {
+        return size;
+    }
+
+    void sort() {
+        Arrays.sort(values, 0, size);
+    }
+
+    long min() {
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            min = Math.min(min, values[i]);
+        }
+        return min;
+    }
+
+    /**
+     * Index of the first value not before {@code key}; the buffer must be sorted.
+     */
+    int lowerBound(long key) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
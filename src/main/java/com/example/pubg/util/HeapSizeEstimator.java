@@ -0,0 +1,54 @@
+package com.example.pubg.util;
+
+import java.util.List;
+
+import com.example.pubg.dto.TelemetryEvent;
+import com.example.pubg.dto.TelemetryEvent.Actor;
+
+/**
+ * Rough retained-size estimate of cached values, used to bound the heap cache by bytes. Assumes a
+ * 64-bit JVM with compressed oops and ignores strings, which the telemetry parser interns per payload.
+ */
+public final class HeapSizeEstimator {
+    private static final int LIST_OVERHEAD = 40;
+    private static final int SLOT = 4;
+    private static final int EVENT = 32;
+    private static final int WIDE_EVENT = 40;
+    private static final int ACTOR = 40;
+    private static final int UNKNOWN_VALUE = 1024;
+
+    private HeapSizeEstimator() {
+    }
+
+    public static int estimate(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return UNKNOWN_VALUE;
+        }
+        long bytes = LIST_OVERHEAD;
+        for (Object element : list) {
+            bytes += SLOT + (element instanceof TelemetryEvent event ? estimate(event) : UNKNOWN_VALUE);
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int estimate(TelemetryEvent event) {
+        if (event instanceof TelemetryEvent.Position position) {
+            return EVENT + actor(position.character());
+        } else if (event instanceof TelemetryEvent.PhaseChange) {
+            return WIDE_EVENT;
+        } else if (event instanceof TelemetryEvent.ItemThrow itemThrow) {
+            return EVENT + actor(itemThrow.character());
+        } else if (event instanceof TelemetryEvent.Attack attack) {
+            return EVENT + actor(attack.attacker()) + actor(attack.victim());
+        } else if (event instanceof TelemetryEvent.Damage damage) {
+            return WIDE_EVENT + actor(damage.attacker()) + actor(damage.victim());
+        } else if (event instanceof TelemetryEvent.KillOrDown kill) {
+            return WIDE_EVENT + actor(kill.attacker()) + actor(kill.victim());
+        }
+        return WIDE_EVENT;
+    }
+
+    private static int actor(Actor actor) {
+        return actor != null ? ACTOR : 0;
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.pubg.util;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Weighted semaphore over estimated heap bytes. Work that holds telemetry in memory reserves its expected
+ * footprint first; once the budget is spent, further callers queue in arrival order until earlier leases
+ * are closed, so a burst of work is delayed instead of exhausting the heap. A reservation larger than the
+ * whole budget is clamped to it and simply runs alone.
+ */
+public class MemoryBudget {
+    private final long capacityBytes;
+    private final WaitStats waitStats = new WaitStats();
+    private final ArrayDeque<Object> waiters = new ArrayDeque<>();
+    private long usedBytes;
+    private long peakBytes;
+
+    public MemoryBudget(long capacityBytes) {
+        if (capacityBytes <= 0) {
+            throw new IllegalArgumentException("capacityBytes must be positive");
+        }
+        this.capacityBytes = capacityBytes;
+    }
+
+    /**
+     * Reserves {@code bytes}, waiting up to {@code maxWait} behind earlier callers. Returns null if the
+     * reservation could not be made in time.
+     */
+    public Lease acquire(long bytes, Duration maxWait) throws InterruptedException {
+        long amount = Math.min(Math.max(0, bytes), capacityBytes);
+        long start = System.nanoTime();
+        long deadline = start + maxWait.toNanos();
+        Object ticket = new Object();
+        synchronized (this) {
+            waiters.addLast(ticket);
+            try {
+                while (waiters.peekFirst() != ticket || usedBytes + amount > capacityBytes) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        waitStats.timedOut();
+                        return null;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                }
+                take(amount);
+            } finally {
+                waiters.remove(ticket);
+                // the next caller in line may fit now
+                notifyAll();
+            }
+        }
+        waitStats.acquired(System.nanoTime() - start);
+        return new Lease(amount);
+    }
+
+    /**
+     * Reserves {@code bytes} only if that needs no wait: nobody is queued and the budget has room. Returns
+     * null otherwise, without counting a timeout.
+     */
+    public synchronized Lease tryAcquire(long bytes) {
+        long amount = Math.min(Math.max(0, bytes), capacityBytes);
+        if (!waiters.isEmpty() || usedBytes + amount > capacityBytes) {
+            return null;
+        }
+        take(amount);
+        waitStats.acquired(0);
+        return new Lease(amount);
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(capacityBytes, usedBytes, peakBytes, waiters.size(), waitStats.acquiredCount(),
+                waitStats.timedOutCount(), waitStats.averageWaitMs(), waitStats.maxWaitMs());
+    }
+
+    private void take(long amount) {
+        usedBytes += amount;
+        peakBytes = Math.max(peakBytes, usedBytes);
+    }
+
+    private synchronized void adjust(long from, long to) {
+        usedBytes -= from;
+        take(to);
+        if (to < from) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * A held reservation; closing it gives the bytes back.
+     */
+    public final class Lease implements AutoCloseable {
+        private long bytes;
+        private boolean closed;
+
+        private Lease(long bytes) {
+            this.bytes = bytes;
+        }
+
+        /**
+         * Replaces the estimate with a measured size once it is known. Never waits: growing past the
+         * budget only delays later callers.
+         */
+        public void resize(long actualBytes) {
+            long amount = Math.min(Math.max(0, actualBytes), capacityBytes);
+            synchronized (MemoryBudget.this) {
+                if (!closed) {
+                    adjust(bytes, amount);
+                    bytes = amount;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (MemoryBudget.this) {
+                if (!closed) {
+                    closed = true;
+                    adjust(bytes, 0);
+                }
+            }
+        }
+    }
+
+    public record Stats(long capacityBytes, long usedBytes, long peakBytes, int waiting, long acquired, long timedOut,
+            double averageWaitMs, double maxWaitMs) {
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.pubg.util;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Queues callers per {@link RequestPriority} in front of the shared {@link RateLimiter}.
+ * Only one caller at a time books a slot from the bucket; when it has one, the next caller is picked by
+ * stride scheduling so that, while both classes are waiting, interactive calls get
+ * {@code interactiveShare} of the permits and background calls the rest. On top of that background calls
+ * may never use more than {@code 1 - reservedInteractive} of the bucket rate, which leaves headroom for
+ * interactive calls that arrive while a refresh is running. A background caller that gives up after
+ * taking its ceiling permit hands it back, so timeouts do not eat into the background share.
+ */
+public class PriorityRateLimiter {
+    private final RateLimiter bucket;
+    private final TokenBucketRateLimiter backgroundCeiling;
+    private final double reservedInteractive;
+    private final Map<RequestPriority, PriorityClass> classes = new EnumMap<>(RequestPriority.class);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition turnReleased = lock.newCondition();
+    private boolean turnTaken;
+
+    public PriorityRateLimiter(RateLimiter bucket, double interactiveShare, double reservedInteractive) {
+        if (interactiveShare <= 0 || interactiveShare >= 1) {
+            throw new IllegalArgumentException("interactiveShare must be between 0 and 1");
+        }
+        if (reservedInteractive < 0 || reservedInteractive >= 1) {
+            throw new IllegalArgumentException("reservedInteractive must be in [0, 1)");
+        }
+        this.bucket = bucket;
+        this.reservedInteractive = reservedInteractive;
+        this.backgroundCeiling = new TokenBucketRateLimiter(bucket.rate() * (1 - reservedInteractive), 1);
+        classes.put(RequestPriority.INTERACTIVE, new PriorityClass(interactiveShare));
+        classes.put(RequestPriority.BACKGROUND, new PriorityClass(1 - interactiveShare));
+    }
+
+    public boolean acquire(Duration maxWait) throws InterruptedException {
+        return acquire(RequestPriority.current(), maxWait);
+    }
+
+    /**
+     * Waits up to {@code maxWait} for a permit in the given class. Returns {@code false} on timeout.
+     */
+    public boolean acquire(RequestPriority priority, Duration maxWait) throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + maxWait.toNanos();
+        PriorityClass own = classes.get(priority);
+        if (priority == RequestPriority.BACKGROUND) {
+            backgroundCeiling.setRate(bucket.rate() * (1 - reservedInteractive));
+            if (!backgroundCeiling.acquire(maxWait)) {
+                own.waitStats.timedOut();
+                return false;
+            }
+        }
+        boolean acquired = false;
+        try {
+            acquired = acquireTurn(own, deadline) && acquireFromBucket(deadline);
+        } finally {
+            if (!acquired && priority == RequestPriority.BACKGROUND) {
+                backgroundCeiling.refund();
+            }
+        }
+        if (acquired) {
+            own.waitStats.acquired(System.nanoTime() - start);
+        } else {
+            own.waitStats.timedOut();
+        }
+        return acquired;
+    }
+
+    /**
+     * Waits until it is this caller's turn to book from the bucket. Returns {@code false} on timeout.
+     */
+    private boolean acquireTurn(PriorityClass own, long deadline) throws InterruptedException {
+        Object ticket = new Object();
+        lock.lockInterruptibly();
+        try {
+            own.enqueue(ticket, this);
+            while (turnTaken || next() != own || own.waiters.peekFirst() != ticket) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    own.waiters.remove(ticket);
+                    turnReleased.signalAll();
+                    return false;
+                }
+                try {
+                    turnReleased.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    own.waiters.remove(ticket);
+                    turnReleased.signalAll();
+                    throw e;
+                }
+            }
+            own.waiters.pollFirst();
+            own.pass += own.stride;
+            turnTaken = true;
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean acquireFromBucket(long deadline) throws InterruptedException {
+        try {
+            return bucket.acquire(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())));
+        } finally {
+            lock.lock();
+            try {
+                turnTaken = false;
+                turnReleased.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The waiting class with the lowest pass, i.e. the one furthest behind its share.
+     */
+    private PriorityClass next() {
+        PriorityClass best = null;
+        for (PriorityClass candidate : classes.values()) {
+            if (!candidate.waiters.isEmpty() && (best == null || candidate.pass < best.pass)) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    private double minActivePass() {
+        double min = Double.MAX_VALUE;
+        for (PriorityClass candidate : classes.values()) {
+            if (!candidate.waiters.isEmpty()) {
+                min = Math.min(min, candidate.pass);
+            }
+        }
+        return min;
+    }
+
+    public Map<RequestPriority, ClassStats> stats() {
+        Map<RequestPriority, ClassStats> stats = new EnumMap<>(RequestPriority.class);
+        lock.lock();
+        try {
+            classes.forEach((priority, c) -> stats.put(priority, c.stats()));
+        } finally {
+            lock.unlock();
+        }
+        return stats;
+    }
+
+    public record ClassStats(int queueDepth, long acquired, long timedOut, double averageWaitMs, double maxWaitMs) {
+    }
+
+    private static final class PriorityClass {
+        private final double stride;
+        private final ArrayDeque<Object> waiters = new ArrayDeque<>();
+        private final WaitStats waitStats = new WaitStats();
+        private double pass;
+
+        private PriorityClass(double share) {
+            this.stride = 1 / share;
+        }
+
+        /**
+         * A class that was idle does not cash in credit from the time it had nothing to send, but keeps
+         * any debt while others are still busy. Once every queue has drained, all classes start over.
+         */
+        private void enqueue(Object ticket, PriorityRateLimiter limiter) {
+            if (waiters.isEmpty()) {
+                double min = limiter.minActivePass();
+                if (min == Double.MAX_VALUE) {
+                    limiter.classes.values().forEach(c -> c.pass = 0);
+                } else if (pass < min) {
+                    pass = min;
+                }
+            }
+            waiters.addLast(ticket);
+        }
+
+        private ClassStats stats() {
+            return new ClassStats(waiters.size(), waitStats.acquiredCount(), waitStats.timedOutCount(),
+                    waitStats.averageWaitMs(), waitStats.maxWaitMs());
+        }
+    }
+}
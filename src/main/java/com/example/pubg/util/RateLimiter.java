@@ -0,0 +1,33 @@
+package com.example.pubg.util;
+
+import java.time.Duration;
+
+/**
+ * Permit source for outgoing PUBG API calls.
+ */
+public interface RateLimiter {
+
+    /**
+     * Waits for a permit for at most {@code maxWait}. Returns {@code false} without waiting when the
+     * next free slot is further away than that.
+     */
+    boolean acquire(Duration maxWait) throws InterruptedException;
+
+    /**
+     * Changes the refill rate. Slots already handed out keep their time.
+     */
+    void setRate(double permitsPerSecond);
+
+    double rate();
+
+    /**
+     * Hands out no permit before {@code pause} has passed and drops any stored burst.
+     */
+    void pauseFor(Duration pause);
+
+    Stats stats();
+
+    record Stats(String backend, double permitsPerSecond, long acquired, long timedOut, double averageWaitMs,
+            double maxWaitMs) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.pubg.util;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+/**
+ * Rate limiter shared by every instance that points at the same Redis key, so replicas together stay
+ * within the budget of the one PUBG API key. The bucket is kept as a GCRA theoretical arrival time and
+ * updated by a Lua script using the Redis clock; callers sleep locally for the returned wait. While
+ * Redis is unreachable the instance falls back to a local bucket running at {@code fallbackShare} of the
+ * rate and tries Redis again after a short cooldown.
+ */
+public class RedisRateLimiter implements RateLimiter {
+    private static final Logger log = LoggerFactory.getLogger(RedisRateLimiter.class);
+    private static final long RETRY_REDIS_AFTER_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    // ARGV: interval us, burst, max wait us. Returns the wait in us, or -1 if it exceeds the max wait.
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000000 + tonumber(t[2])
+            local interval = tonumber(ARGV[1])
+            local tat = tonumber(redis.call('GET', KEYS[1]) or now)
+            if tat < now then tat = now end
+            local wait = tat - (tonumber(ARGV[2]) - 1) * interval - now
+            if wait < 0 then wait = 0 end
+            if wait > tonumber(ARGV[3]) then return -1 end
+            local next_tat = tat + interval
+            redis.call('SET', KEYS[1], string.format('%.0f', next_tat),
+                'PX', math.ceil((next_tat - now) / 1000) + 1000)
+            return wait
+            """, Long.class);
+
+    // ARGV: pause us, interval us, burst. Moves the arrival time so the next permit is at now + pause.
+    private static final RedisScript<Long> PAUSE = new DefaultRedisScript<>("""
+            local t = redis.call('TIME')
+            local now = tonumber(t[1]) * 1000000 + tonumber(t[2])
+            local tat = now + tonumber(ARGV[1]) + (tonumber(ARGV[3]) - 1) * tonumber(ARGV[2])
+            local current = tonumber(redis.call('GET', KEYS[1]) or 0)
+            if current < tat then
+                redis.call('SET', KEYS[1], string.format('%.0f', tat), 'PX', math.ceil((tat - now) / 1000) + 1000)
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate redis;
+    private final List<String> keys;
+    private final int burst;
+    private final double fallbackShare;
+    private final TokenBucketRateLimiter fallback;
+    private final WaitStats waitStats = new WaitStats();
+    private volatile double permitsPerSecond;
+    private volatile long redisRetryAt;
+    private volatile boolean redisDown;
+
+    public RedisRateLimiter(StringRedisTemplate redis, String key, double permitsPerSecond, int burst,
+            double fallbackShare) {
+        this.redis = redis;
+        this.keys = List.of(key);
+        this.burst = Math.max(1, burst);
+        this.fallbackShare = fallbackShare;
+        this.permitsPerSecond = permitsPerSecond;
+        this.fallback = new TokenBucketRateLimiter(permitsPerSecond * fallbackShare, burst);
+    }
+
+    @Override
+    public boolean acquire(Duration maxWait) throws InterruptedException {
+        if (redisDown && System.nanoTime() - redisRetryAt < 0) {
+            return fallback.acquire(maxWait);
+        }
+        Long waitMicros;
+        try {
+            waitMicros = redis.execute(ACQUIRE, keys, Long.toString(intervalMicros()), Integer.toString(burst),
+                    Long.toString(TimeUnit.NANOSECONDS.toMicros(maxWait.toNanos())));
+        } catch (DataAccessException e) {
+            markDown(e);
+            return fallback.acquire(maxWait);
+        }
+        markUp();
+        if (waitMicros == null || waitMicros < 0) {
+            waitStats.timedOut();
+            return false;
+        }
+        long waitNanos = TimeUnit.MICROSECONDS.toNanos(waitMicros);
+        waitStats.acquired(waitNanos);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    @Override
+    public void setRate(double permitsPerSecond) {
+        TokenBucketRateLimiter.intervalNanos(permitsPerSecond);
+        this.permitsPerSecond = permitsPerSecond;
+        fallback.setRate(permitsPerSecond * fallbackShare);
+    }
+
+    @Override
+    public double rate() {
+        return permitsPerSecond;
+    }
+
+    @Override
+    public void pauseFor(Duration pause) {
+        fallback.pauseFor(pause);
+        try {
+            redis.execute(PAUSE, keys, Long.toString(TimeUnit.NANOSECONDS.toMicros(pause.toNanos())),
+                    Long.toString(intervalMicros()), Integer.toString(burst));
+        } catch (DataAccessException e) {
+            markDown(e);
+        }
+    }
+
+    @Override
+    public Stats stats() {
+        Stats local = fallback.stats();
+        long acquired = waitStats.acquiredCount() + local.acquired();
+        double averageWaitMs = acquired > 0 ? (waitStats.averageWaitMs() * waitStats.acquiredCount()
+                + local.averageWaitMs() * local.acquired()) / acquired : 0;
+        return new Stats(redisDown ? "redis (local fallback)" : "redis", permitsPerSecond, acquired,
+                waitStats.timedOutCount() + local.timedOut(), averageWaitMs,
+                Math.max(waitStats.maxWaitMs(), local.maxWaitMs()));
+    }
+
+    private long intervalMicros() {
+        return Math.max(1, TimeUnit.NANOSECONDS.toMicros(TokenBucketRateLimiter.intervalNanos(permitsPerSecond)));
+    }
+
+    private void markDown(DataAccessException e) {
+        redisRetryAt = System.nanoTime() + RETRY_REDIS_AFTER_NANOS;
+        if (!redisDown) {
+            redisDown = true;
+            log.warn("Redis rate limiter unavailable, using local limiter at {} of the rate", fallbackShare, e);
+        }
+    }
+
+    private void markUp() {
+        if (redisDown) {
+            redisDown = false;
+            log.info("Redis rate limiter available again");
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.pubg.util;
+
+import java.util.function.Supplier;
+
+/**
+ * Scheduling class of outgoing PUBG API calls. The class is bound to the calling thread; work that hops
+ * to another pool has to carry it over with {@link #call(RequestPriority, Supplier)}.
+ */
+public enum RequestPriority {
+    INTERACTIVE,
+    BACKGROUND;
+
+    private static final ThreadLocal<RequestPriority> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static RequestPriority current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Runs {@code work} with {@code priority} bound to the current thread, restoring the previous class
+     * afterwards.
+     */
+    public static <T> T call(RequestPriority priority, Supplier<T> work) {
+        RequestPriority previous = CURRENT.get();
+        CURRENT.set(priority);
+        try {
+            return work.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,419 @@
+package com.example.pubg.util;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.example.pubg.dto.TelemetryEvent;
+import com.example.pubg.dto.TelemetryEvent.Actor;
+
+/**
+ * Compact binary form of parsed telemetry.
+ * <p>
+ * Layout: magic {@code PTC1}, uncompressed length, then a deflated block holding a string dictionary
+ * followed by the events. Every string (event type, account id, name, category) is written once and
+ * referenced by index. Timestamps are zigzag varint deltas from the previous event, and actor
+ * coordinates are varint deltas of the float bits from the same actor's previous position, so a
+ * player moving a few metres costs a byte or two per axis. Decoding is lossless and shares one
+ * {@code String} instance per distinct value.
+ */
+public final class TelemetryCodec {
+    private static final int MAGIC = 0x50544331;
+    private static final int HEADER_BYTES = 8;
+
+    private static final byte POSITION = 1;
+    private static final byte PHASE_CHANGE = 2;
+    private static final byte ITEM_THROW = 3;
+    private static final byte ATTACK = 4;
+    private static final byte DAMAGE = 5;
+    private static final byte KILL_OR_DOWN = 6;
+
+    private static final int ACTOR_PRESENT = 1;
+    private static final int ACTOR_IN_VEHICLE = 2;
+
+    private TelemetryCodec() {
+    }
+
+    public static byte[] encode(List<TelemetryEvent> events) {
+        Encoder encoder = new Encoder();
+        encoder.body.writeVarInt(events.size());
+        long previousTimestamp = 0;
+        for (TelemetryEvent event : events) {
+            encoder.writeEvent(event, event.timestamp() - previousTimestamp);
+            previousTimestamp = event.timestamp();
+        }
+
+        Sink payload = new Sink(encoder.body.size() + 1024);
+        payload.writeVarInt(encoder.dictionary.size());
+        for (String value : encoder.dictionary) {
+            byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+            payload.writeVarInt(utf8.length);
+            payload.write(utf8, 0, utf8.length);
+        }
+        payload.write(encoder.body.buffer, 0, encoder.body.size());
+
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload.buffer, 0, payload.size());
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(payload.size() / 3 + HEADER_BYTES);
+            out.writeBytes(ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(payload.size()).array());
+            byte[] chunk = new byte[16 * 1024];
+            while (!deflater.finished()) {
+                int n = deflater.deflate(chunk);
+                out.write(chunk, 0, n);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    public static List<TelemetryEvent> decode(byte[] bytes) {
+        return decode(ByteBuffer.wrap(bytes));
+    }
+
+    /**
+     * Decodes from the buffer's position to its limit, e.g. straight from a mapped file.
+     */
+    public static List<TelemetryEvent> decode(ByteBuffer encoded) {
+        ByteBuffer header = encoded.duplicate();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an encoded telemetry block");
+        }
+        byte[] payload = new byte[header.getInt()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(header);
+            int read = 0;
+            while (read < payload.length) {
+                int n = inflater.inflate(payload, read, payload.length - read);
+                if (n == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalArgumentException("Truncated telemetry block");
+                }
+                read += n;
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt telemetry block", e);
+        } finally {
+            inflater.end();
+        }
+        return new Decoder(payload).readEvents();
+    }
+
+    private static final class Encoder {
+        private final Sink body = new Sink(64 * 1024);
+        private final List<String> dictionary = new ArrayList<>();
+        private final Map<String, Integer> ids = new HashMap<>();
+        private int[] lastX = new int[64];
+        private int[] lastY = new int[64];
+        private int[] lastZ = new int[64];
+
+        private void writeEvent(TelemetryEvent event, long timestampDelta) {
+            byte kind = kindOf(event);
+            body.writeByte(kind);
+            writeString(event.type());
+            body.writeVarLong(zigzag(timestampDelta));
+            switch (kind) {
+                case POSITION -> writeActor(((TelemetryEvent.Position) event).character());
+                case PHASE_CHANGE -> {
+                    TelemetryEvent.PhaseChange phase = (TelemetryEvent.PhaseChange) event;
+                    body.writeVarInt(zigzag(phase.phase()));
+                    body.writeInt(Float.floatToRawIntBits(phase.x()));
+                    body.writeInt(Float.floatToRawIntBits(phase.y()));
+                    body.writeInt(Float.floatToRawIntBits(phase.radius()));
+                }
+                case ITEM_THROW -> {
+                    TelemetryEvent.ItemThrow itemThrow = (TelemetryEvent.ItemThrow) event;
+                    writeActor(itemThrow.character());
+                    writeString(itemThrow.subCategory());
+                }
+                case ATTACK -> {
+                    TelemetryEvent.Attack attack = (TelemetryEvent.Attack) event;
+                    writeActor(attack.attacker());
+                    writeActor(attack.victim());
+                }
+                case DAMAGE -> {
+                    TelemetryEvent.Damage damage = (TelemetryEvent.Damage) event;
+                    writeActor(damage.attacker());
+                    writeActor(damage.victim());
+                    writeString(damage.damageTypeCategory());
+                }
+                default -> {
+                    TelemetryEvent.KillOrDown kill = (TelemetryEvent.KillOrDown) event;
+                    writeActor(kill.attacker());
+                    writeActor(kill.victim());
+                    body.writeByte(kill.down() ? 1 : 0);
+                }
+            }
+        }
+
+        private void writeActor(Actor actor) {
+            if (actor == null) {
+                body.writeByte(0);
+                return;
+            }
+            body.writeByte(ACTOR_PRESENT | (actor.inVehicle() ? ACTOR_IN_VEHICLE : 0));
+            int accountRef = writeString(actor.accountId());
+            int nameRef = writeString(actor.name());
+            int slot = slotOf(accountRef, nameRef);
+            lastX[slot] = writeCoordinate(actor.x(), lastX[slot]);
+            lastY[slot] = writeCoordinate(actor.y(), lastY[slot]);
+            lastZ[slot] = writeCoordinate(actor.z(), lastZ[slot]);
+        }
+
+        private int writeCoordinate(float value, int previousBits) {
+            int bits = Float.floatToRawIntBits(value);
+            body.writeVarInt(zigzag(bits - previousBits));
+            return bits;
+        }
+
+        /**
+         * Coordinate state is kept per actor, keyed like {@link Actor#id()}: slot 0 for actors with
+         * neither id nor name, otherwise the string reference.
+         */
+        private int slotOf(int accountRef, int nameRef) {
+            int slot = accountRef != 0 ? accountRef : nameRef;
+            if (slot >= lastX.length) {
+                int capacity = Math.max(slot + 1, lastX.length * 2);
+                lastX = Arrays.copyOf(lastX, capacity);
+                lastY = Arrays.copyOf(lastY, capacity);
+                lastZ = Arrays.copyOf(lastZ, capacity);
+            }
+            return slot;
+        }
+
+        /**
+         * Writes the reference to {@code value}: 0 for null, otherwise its dictionary index + 1.
+         */
+        private int writeString(String value) {
+            int ref = 0;
+            if (value != null) {
+                Integer id = ids.get(value);
+                if (id == null) {
+                    id = dictionary.size();
+                    dictionary.add(value);
+                    ids.put(value, id);
+                }
+                ref = id + 1;
+            }
+            body.writeVarInt(ref);
+            return ref;
+        }
+
+        private static byte kindOf(TelemetryEvent event) {
+            if (event instanceof TelemetryEvent.Position) {
+                return POSITION;
+            } else if (event instanceof TelemetryEvent.PhaseChange) {
+                return PHASE_CHANGE;
+            } else if (event instanceof TelemetryEvent.ItemThrow) {
+                return ITEM_THROW;
+            } else if (event instanceof TelemetryEvent.Attack) {
+                return ATTACK;
+            } else if (event instanceof TelemetryEvent.Damage) {
+                return DAMAGE;
+            }
+            return KILL_OR_DOWN;
+        }
+    }
+
+    private static final class Decoder {
+        private final byte[] buf;
+        private int pos;
+        private String[] dictionary;
+        /** {@link TelemetrySymbols} type bits per dictionary reference, classified on first use; -1 if not yet. */
+        private int[] typeFlags;
+        private int[] lastX;
+        private int[] lastY;
+        private int[] lastZ;
+
+        private Decoder(byte[] buf) {
+            this.buf = buf;
+        }
+
+        private List<TelemetryEvent> readEvents() {
+            int size = readVarInt();
+            dictionary = new String[size];
+            for (int i = 0; i < size; i++) {
+                int length = readVarInt();
+                dictionary[i] = new String(buf, pos, length, StandardCharsets.UTF_8);
+                pos += length;
+            }
+            typeFlags = new int[size + 1];
+            Arrays.fill(typeFlags, -1);
+            lastX = new int[size + 1];
+            lastY = new int[size + 1];
+            lastZ = new int[size + 1];
+
+            int count = readVarInt();
+            List<TelemetryEvent> events = new ArrayList<>(count);
+            long timestamp = 0;
+            for (int i = 0; i < count; i++) {
+                byte kind = buf[pos++];
+                int typeRef = readVarInt();
+                String type = string(typeRef);
+                timestamp += unzigzag(readVarLong());
+                events.add(switch (kind) {
+                    case POSITION -> new TelemetryEvent.Position(type, timestamp, readActor());
+                    case PHASE_CHANGE -> new TelemetryEvent.PhaseChange(type, timestamp, unzigzag(readVarInt()),
+                            readFloat(), readFloat(), readFloat());
+                    case ITEM_THROW -> new TelemetryEvent.ItemThrow(type, timestamp, readActor(), readString());
+                    case ATTACK -> new TelemetryEvent.Attack(type, typeFlags(typeRef), timestamp, readActor(),
+                            readActor());
+                    case DAMAGE -> new TelemetryEvent.Damage(type, typeFlags(typeRef), timestamp, readActor(),
+                            readActor(), readString());
+                    case KILL_OR_DOWN -> new TelemetryEvent.KillOrDown(type, typeFlags(typeRef), timestamp,
+                            readActor(), readActor(), buf[pos++] != 0);
+                    default -> throw new IllegalArgumentException("Unknown telemetry event kind " + kind);
+                });
+            }
+            return events;
+        }
+
+        private Actor readActor() {
+            int flags = buf[pos++];
+            if ((flags & ACTOR_PRESENT) == 0) {
+                return null;
+            }
+            int accountRef = readVarInt();
+            int nameRef = readVarInt();
+            int slot = accountRef != 0 ? accountRef : nameRef;
+            lastX[slot] += unzigzag(readVarInt());
+            lastY[slot] += unzigzag(readVarInt());
+            lastZ[slot] += unzigzag(readVarInt());
+            return new Actor(string(accountRef), string(nameRef), Float.intBitsToFloat(lastX[slot]),
+                    Float.intBitsToFloat(lastY[slot]), Float.intBitsToFloat(lastZ[slot]),
+                    (flags & ACTOR_IN_VEHICLE) != 0);
+        }
+
+        private String readString() {
+            return string(readVarInt());
+        }
+
+        /**
+         * Type bits are not stored; they follow from the type name and are classified once per block.
+         */
+        private int typeFlags(int typeRef) {
+            if (typeFlags[typeRef] < 0) {
+                typeFlags[typeRef] = typeRef == 0 ? 0 : TelemetrySymbols.classify(dictionary[typeRef - 1]);
+            }
+            return typeFlags[typeRef];
+        }
+
+        private String string(int ref) {
+            return ref == 0 ? null : dictionary[ref - 1];
+        }
+
+        private float readFloat() {
+            int bits = (buf[pos] & 0xFF) << 24 | (buf[pos + 1] & 0xFF) << 16 | (buf[pos + 2] & 0xFF) << 8
+                    | (buf[pos + 3] & 0xFF);
+            pos += 4;
+            return Float.intBitsToFloat(bits);
+        }
+
+        private int readVarInt() {
+            int value = 0;
+            for (int shift = 0;; shift += 7) {
+                byte b = buf[pos++];
+                value |= (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+
+        private long readVarLong() {
+            long value = 0;
+            for (int shift = 0;; shift += 7) {
+                byte b = buf[pos++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+
+    /**
+     * Growable byte buffer with varint writes.
+     */
+    private static final class Sink {
+        private byte[] buffer;
+        private int size;
+
+        private Sink(int capacity) {
+            this.buffer = new byte[capacity];
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(size + extra, buffer.length * 2));
+            }
+        }
+
+        private void writeByte(int b) {
+            ensure(1);
+            buffer[size++] = (byte) b;
+        }
+
+        private void write(byte[] bytes, int off, int len) {
+            ensure(len);
+            System.arraycopy(bytes, off, buffer, size, len);
+            size += len;
+        }
+
+        private void writeInt(int value) {
+            ensure(4);
+            buffer[size++] = (byte) (value >>> 24);
+            buffer[size++] = (byte) (value >>> 16);
+            buffer[size++] = (byte) (value >>> 8);
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+
+        private void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                buffer[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[size++] = (byte) value;
+        }
+    }
+
+    private static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
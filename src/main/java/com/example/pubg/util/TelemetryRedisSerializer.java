@@ -0,0 +1,31 @@
+package com.example.pubg.util;
+
+import java.util.List;
+
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import com.example.pubg.dto.TelemetryEvent;
+
+/**
+ * Redis value serializer for the telemetry cache, backed by {@link TelemetryCodec}.
+ */
+public class TelemetryRedisSerializer implements RedisSerializer<List<TelemetryEvent>> {
+
+    @Override
+    public byte[] serialize(List<TelemetryEvent> events) {
+        return events == null ? null : TelemetryCodec.encode(events);
+    }
+
+    @Override
+    public List<TelemetryEvent> deserialize(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return TelemetryCodec.decode(bytes);
+        } catch (IllegalArgumentException e) {
+            throw new SerializationException("Cannot decode cached telemetry", e);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.pubg.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-match symbol table. Event types, actor ids and categories are mapped to dense int codes the first
+ * time they are seen. Each event type is classified into {@code TYPE_*} bits once, so per-event code can
+ * test a bit mask instead of matching substrings of {@code _T}.
+ */
+public final class TelemetrySymbols {
+    public static final int TYPE_ATTACK = 1;
+    public static final int TYPE_TAKE_DAMAGE = 1 << 1;
+    public static final int TYPE_KILL = 1 << 2;
+    public static final int TYPE_DOWN = 1 << 3;
+    public static final int TYPE_PHASE_CHANGE = 1 << 4;
+    public static final int TYPE_ITEM_THROW = 1 << 5;
+    public static final int TYPE_COMBAT = TYPE_ATTACK | TYPE_TAKE_DAMAGE | TYPE_KILL | TYPE_DOWN;
+
+    private final Map<String, String> strings = new HashMap<>();
+    private final Dictionary types = new Dictionary();
+    private final Dictionary actors = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    private int[] typeFlags = new int[32];
+
+    /**
+     * Bits describing what kind of event a {@code _T} names.
+     */
+    public static int classify(String type) {
+        if ("LogPhaseChange".equals(type) || "LogBlueZoneCustom".equals(type)) {
+            return TYPE_PHASE_CHANGE;
+        }
+        if ("LogItemThrow".equals(type)) {
+            return TYPE_ITEM_THROW;
+        }
+        int flags = 0;
+        if (type.contains("Attack")) {
+            flags |= TYPE_ATTACK;
+        }
+        if (type.contains("TakeDamage")) {
+            flags |= TYPE_TAKE_DAMAGE;
+        }
+        if (type.contains("Kill")) {
+            flags |= TYPE_KILL;
+        }
+        if (type.contains("Down")) {
+            flags |= TYPE_DOWN;
+        }
+        return flags;
+    }
+
+    /**
+     * Single shared copy of a repeated string such as an account id or player name.
+     */
+    public String intern(String value) {
+        return strings.computeIfAbsent(value, s -> s);
+    }
+
+    public int type(String type) {
+        int known = types.size();
+        int code = types.code(type);
+        if (code == known) {
+            if (code == typeFlags.length) {
+                typeFlags = Arrays.copyOf(typeFlags, code * 2);
+            }
+            typeFlags[code] = classify(type);
+        }
+        return code;
+    }
+
+    public String typeName(int code) {
+        return types.value(code);
+    }
+
+    public int typeFlags(int code) {
+        return typeFlags[code];
+    }
+
+    public int actor(String id) {
+        return actors.code(id);
+    }
+
+    /**
+     * Code of an actor id already seen, or -1.
+     */
+    public int findActor(String id) {
+        return actors.find(id);
+    }
+
+    public String actorId(int code) {
+        return actors.value(code);
+    }
+
+    public int actorCount() {
+        return actors.size();
+    }
+
+    public int category(String category) {
+        return categories.code(category);
+    }
+
+    public String categoryName(int code) {
+        return categories.value(code);
+    }
+
+    public int categoryCount() {
+        return categories.size();
+    }
+
+    private static final class Dictionary {
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> values = new ArrayList<>();
+
+        int code(String value) {
+            Integer code = codes.get(value);
+            if (code == null) {
+                code = values.size();
+                codes.put(value, code);
+                values.add(value);
+            }
+            return code;
+        }
+
+        int find(String value) {
+            Integer code = codes.get(value);
+            return code != null ? code : -1;
+        }
+
+        String value(int code) {
+            return values.get(code);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
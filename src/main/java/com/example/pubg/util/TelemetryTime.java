@@ -0,0 +1,108 @@
+package com.example.pubg.util;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Decodes telemetry {@code _D} timestamps ({@code 2023-10-10T00:03:25.123Z}) into epoch milliseconds
+ * straight from the character buffer, without building intermediate objects.
+ */
+public final class TelemetryTime {
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private TelemetryTime() {
+    }
+
+    public static long parseEpochMillis(CharSequence text) {
+        int len = text.length();
+        char[] buf = new char[len];
+        for (int i = 0; i < len; i++) {
+            buf[i] = text.charAt(i);
+        }
+        return parseEpochMillis(buf, 0, len);
+    }
+
+    /**
+     * Returns {@link #INVALID} when the text is not an ISO-8601 instant.
+     */
+    public static long parseEpochMillis(char[] buf, int offset, int len) {
+        long fast = parseUtc(buf, offset, len);
+        return fast != INVALID ? fast : parseWithOffset(new String(buf, offset, len));
+    }
+
+    private static long parseUtc(char[] buf, int off, int len) {
+        // yyyy-MM-ddTHH:mm:ss[.f{1,9}]Z
+        if (len < 20 || buf[off + 4] != '-' || buf[off + 7] != '-' || buf[off + 10] != 'T'
+                || buf[off + 13] != ':' || buf[off + 16] != ':' || buf[off + len - 1] != 'Z') {
+            return INVALID;
+        }
+        int year = digits(buf, off, 4);
+        int month = digits(buf, off + 5, 2);
+        int day = digits(buf, off + 8, 2);
+        int hour = digits(buf, off + 11, 2);
+        int minute = digits(buf, off + 14, 2);
+        int second = digits(buf, off + 17, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+                || hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return INVALID;
+        }
+        int millis = 0;
+        int fractionLen = len - 20;
+        if (fractionLen > 0) {
+            if (buf[off + 19] != '.' || fractionLen - 1 < 1 || fractionLen - 1 > 9) {
+                return INVALID;
+            }
+            int fraction = digits(buf, off + 20, fractionLen - 1);
+            if (fraction < 0) {
+                return INVALID;
+            }
+            for (int i = fractionLen - 1; i < 3; i++) {
+                fraction *= 10;
+            }
+            for (int i = 3; i < fractionLen - 1; i++) {
+                fraction /= 10;
+            }
+            millis = fraction;
+        }
+        long seconds = daysFromCivil(year, month, day) * 86_400L + hour * 3_600L + minute * 60L + second;
+        return seconds * 1000L + millis;
+    }
+
+    private static long parseWithOffset(String text) {
+        try {
+            return OffsetDateTime.parse(text, DateTimeFormatter.ISO_OFFSET_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return INVALID;
+        }
+    }
+
+    private static int digits(char[] buf, int off, int count) {
+        int value = 0;
+        for (int i = off; i < off + count; i++) {
+            int d = buf[i] - '0';
+            if (d < 0 || d > 9) {
+                return -1;
+            }
+            value = value * 10 + d;
+        }
+        return value;
+    }
+
+    private static int daysInMonth(int year, int month) {
+        return switch (month) {
+            case 2 -> (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+            case 4, 6, 9, 11 -> 30;
+            default -> 31;
+        };
+    }
+
+    private static long daysFromCivil(int year, int month, int day) {
+        int y = month <= 2 ? year - 1 : year;
+        int era = (y >= 0 ? y : y - 399) / 400;
+        int yearOfEra = y - era * 400;
+        int dayOfYear = (153 * (month + (month > 2 ? -3 : 9)) + 2) / 5 + day - 1;
+        int dayOfEra = yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear;
+        return era * 146_097L + dayOfEra - 719_468;
+    }
+}
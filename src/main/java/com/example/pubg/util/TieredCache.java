@@ -0,0 +1,134 @@
+package com.example.pubg.util;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+/**
+ * Spring {@link Cache} that keeps recently used values on the heap in front of a shared remote cache.
+ * Reads try the in-process tier first and only fall through to the remote tier on a miss, promoting
+ * what they find there; writes and evictions go to both tiers. Concurrent misses of the same key in
+ * {@link #get(Object, Callable)} run the loader once.
+ */
+public class TieredCache implements Cache {
+    private final String name;
+    private final com.github.benmanes.caffeine.cache.Cache<Object, Object> local;
+    private final Cache remote;
+    private final LongAdder localHits = new LongAdder();
+    private final LongAdder remoteHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final SingleFlight<Object, Object> loads = new SingleFlight<>();
+
+    public TieredCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> local, Cache remote) {
+        this.name = name;
+        this.local = local;
+        this.remote = remote;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        Object value = local.getIfPresent(key);
+        if (value != null) {
+            localHits.increment();
+            return new SimpleValueWrapper(value);
+        }
+        ValueWrapper wrapper = remote.get(key);
+        if (wrapper == null) {
+            misses.increment();
+            return null;
+        }
+        remoteHits.increment();
+        if (wrapper.get() != null) {
+            local.put(key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+        // not Caffeine's compute: a load may be a long download and would block other keys in its bin
+        return (T) loads.execute(key, () -> {
+            // a load that completed after the miss above has already filled the heap tier
+            Object loaded = local.getIfPresent(key);
+            if (loaded != null) {
+                return loaded;
+            }
+            T value;
+            try {
+                value = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            }
+            put(key, value);
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        remote.put(key, value);
+        if (value != null) {
+            local.put(key, value);
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        local.invalidate(key);
+        remote.evict(key);
+    }
+
+    @Override
+    public void clear() {
+        local.invalidateAll();
+        remote.clear();
+    }
+
+    public Stats stats() {
+        long local = localHits.sum();
+        long remote = remoteHits.sum();
+        long miss = misses.sum();
+        long requests = local + remote + miss;
+        return new Stats(local, remote, miss,
+                requests > 0 ? (double) local / requests : 0,
+                requests > 0 ? (double) (local + remote) / requests : 0,
+                this.local.estimatedSize(),
+                this.local.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L),
+                this.local.stats().evictionCount());
+    }
+
+    /**
+     * Hit counts per tier; {@code localBytes} is the weigher's estimate of what the heap tier holds.
+     */
+    public record Stats(long localHits, long remoteHits, long misses, double localHitRate, double overallHitRate,
+            long localEntries, long localBytes, long localEvictions) {
+    }
+}
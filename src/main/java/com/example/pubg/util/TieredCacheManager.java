@@ -0,0 +1,50 @@
+package com.example.pubg.util;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+/**
+ * Puts a {@link TieredCache} with its own heap tier in front of every cache of the remote manager.
+ */
+public class TieredCacheManager implements CacheManager {
+    private final CacheManager remote;
+    private final Function<String, Caffeine<Object, Object>> localSpec;
+    private final Map<String, TieredCache> caches = new ConcurrentHashMap<>();
+
+    public TieredCacheManager(CacheManager remote, Function<String, Caffeine<Object, Object>> localSpec) {
+        this.remote = remote;
+        this.localSpec = localSpec;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        TieredCache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache remoteCache = remote.getCache(name);
+        if (remoteCache == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, n -> new TieredCache(n, localSpec.apply(n).build(), remoteCache));
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return remote.getCacheNames();
+    }
+
+    public Map<String, TieredCache.Stats> stats() {
+        Map<String, TieredCache.Stats> stats = new TreeMap<>();
+        caches.forEach((name, cache) -> stats.put(name, cache.stats()));
+        return stats;
+    }
+}
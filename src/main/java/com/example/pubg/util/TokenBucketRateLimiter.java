@@ -0,0 +1,104 @@
+package com.example.pubg.util;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket with nanosecond precision. Permits are handed out one interval apart instead of in a
+ * burst at each second boundary; up to {@code burst} permits may accumulate while the limiter is idle.
+ * A caller reserves its slot under the lock and then sleeps outside it, so waiters queue in arrival
+ * order.
+ */
+public class TokenBucketRateLimiter implements RateLimiter {
+    private final double maxStoredPermits;
+    private final WaitStats waitStats = new WaitStats();
+
+    private long intervalNanos;
+    private double storedPermits;
+    private long nextFreeNanos;
+
+    public TokenBucketRateLimiter(double permitsPerSecond, int burst) {
+        this.intervalNanos = intervalNanos(permitsPerSecond);
+        // the caller at the head of the bucket is always served right away, so only burst - 1 are stored
+        this.maxStoredPermits = Math.max(0, burst - 1);
+        this.storedPermits = maxStoredPermits;
+        this.nextFreeNanos = System.nanoTime();
+    }
+
+    @Override
+    public boolean acquire(Duration maxWait) throws InterruptedException {
+        long waitNanos = reserve(System.nanoTime(), maxWait.toNanos());
+        if (waitNanos < 0) {
+            waitStats.timedOut();
+            return false;
+        }
+        waitStats.acquired(waitNanos);
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+        return true;
+    }
+
+    /**
+     * Books the next slot and returns how long the caller has to wait for it, or -1 if that is longer
+     * than {@code maxWaitNanos}.
+     */
+    private synchronized long reserve(long now, long maxWaitNanos) {
+        if (now > nextFreeNanos) {
+            storedPermits = Math.min(maxStoredPermits, storedPermits + (double) (now - nextFreeNanos) / intervalNanos);
+            nextFreeNanos = now;
+        }
+        long waitNanos = nextFreeNanos - now;
+        if (waitNanos > maxWaitNanos) {
+            return -1;
+        }
+        double fromStored = Math.min(1, storedPermits);
+        storedPermits -= fromStored;
+        nextFreeNanos += (long) ((1 - fromStored) * intervalNanos);
+        return waitNanos;
+    }
+
+    /**
+     * Hands back a permit that was acquired but not used. Slots booked after it move one interval
+     * earlier; a slot that has already passed comes back as a stored permit, up to the burst.
+     */
+    synchronized void refund() {
+        long now = System.nanoTime();
+        long earliest = Math.max(now, nextFreeNanos - intervalNanos);
+        storedPermits = Math.min(maxStoredPermits,
+                storedPermits + (double) (intervalNanos - (nextFreeNanos - earliest)) / intervalNanos);
+        nextFreeNanos = earliest;
+    }
+
+    @Override
+    public synchronized void setRate(double permitsPerSecond) {
+        intervalNanos = intervalNanos(permitsPerSecond);
+    }
+
+    @Override
+    public synchronized double rate() {
+        return (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos;
+    }
+
+    @Override
+    public synchronized void pauseFor(Duration pause) {
+        long resumeAt = System.nanoTime() + pause.toNanos();
+        if (resumeAt > nextFreeNanos) {
+            nextFreeNanos = resumeAt;
+        }
+        storedPermits = 0;
+    }
+
+    @Override
+    public Stats stats() {
+        return new Stats("local", rate(), waitStats.acquiredCount(), waitStats.timedOutCount(),
+                waitStats.averageWaitMs(), waitStats.maxWaitMs());
+    }
+
+    static long intervalNanos(double permitsPerSecond) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive");
+        }
+        return Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+    }
+}
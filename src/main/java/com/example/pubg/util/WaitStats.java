@@ -0,0 +1,41 @@
+package com.example.pubg.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free counters of how long permit callers waited.
+ */
+class WaitStats {
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+    private final LongAdder totalWaitNanos = new LongAdder();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    void acquired(long waitNanos) {
+        acquired.increment();
+        totalWaitNanos.add(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+    }
+
+    void timedOut() {
+        timedOut.increment();
+    }
+
+    long acquiredCount() {
+        return acquired.sum();
+    }
+
+    long timedOutCount() {
+        return timedOut.sum();
+    }
+
+    double averageWaitMs() {
+        long count = acquired.sum();
+        return count > 0 ? totalWaitNanos.sum() / 1e6 / count : 0;
+    }
+
+    double maxWaitMs() {
+        return maxWaitNanos.get() / 1e6;
+    }
+}
@@ -0,0 +1,158 @@
+package com.example.pubg.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class TelemetryArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsBackArchivedPayloadsAfterReopening() throws IOException {
+        try (TelemetryArchive archive = open(1 << 20)) {
+            append(archive, "m1", payload(1));
+            append(archive, "m2", payload(2));
+            assertThat(read(archive, "m1")).isEqualTo(payload(1));
+            assertThat(archive.open("missing")).isNull();
+        }
+        try (TelemetryArchive archive = open(1 << 20)) {
+            assertThat(read(archive, "m1")).isEqualTo(payload(1));
+            assertThat(read(archive, "m2")).isEqualTo(payload(2));
+            // matches are written once
+            assertThat(archive.writer("m1")).isNull();
+            assertThat(read(archive, "m1")).isEqualTo(payload(1));
+        }
+    }
+
+    @Test
+    void rollsOverToANewSegment() throws IOException {
+        try (TelemetryArchive archive = open(1)) {
+            append(archive, "m1", payload(1));
+            append(archive, "m2", payload(2));
+            append(archive, "m3", payload(3));
+        }
+        assertThat(segments()).hasSize(3);
+        try (TelemetryArchive archive = open(1)) {
+            assertThat(read(archive, "m1")).isEqualTo(payload(1));
+            assertThat(read(archive, "m3")).isEqualTo(payload(3));
+            append(archive, "m4", payload(4));
+        }
+        assertThat(segments()).hasSize(4);
+    }
+
+    @Test
+    void cutsOffATornTailOfTheLastSegment() throws IOException {
+        long firstRecordEnd;
+        try (TelemetryArchive archive = open(1 << 20)) {
+            append(archive, "m1", payload(1));
+            firstRecordEnd = Files.size(segments().get(0));
+            append(archive, "m2", payload(2));
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.truncate(Files.size(segment) - 5);
+        }
+
+        try (TelemetryArchive archive = open(1 << 20)) {
+            assertThat(read(archive, "m1")).isEqualTo(payload(1));
+            assertThat(read(archive, "m2")).isNull();
+            assertThat(Files.size(segment)).isEqualTo(firstRecordEnd);
+            append(archive, "m2", payload(2));
+        }
+        try (TelemetryArchive archive = open(1 << 20)) {
+            assertThat(read(archive, "m2")).isEqualTo(payload(2));
+        }
+    }
+
+    @Test
+    void skipsADamagedRecordInAnOlderSegment() throws IOException {
+        try (TelemetryArchive archive = open(1 << 20)) {
+            append(archive, "m1", payload(1));
+            append(archive, "m2", payload(2));
+            append(archive, "m3", payload(3));
+        }
+        // a tiny segment size makes the next append start a new segment
+        try (TelemetryArchive archive = open(1)) {
+            append(archive, "m4", payload(4));
+        }
+        Path older = segments().get(0);
+        long size = Files.size(older);
+        try (FileChannel channel = FileChannel.open(older, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4), 0);
+        }
+
+        try (TelemetryArchive archive = open(1)) {
+            assertThat(read(archive, "m1")).isNull();
+            assertThat(read(archive, "m2")).isEqualTo(payload(2));
+            assertThat(read(archive, "m3")).isEqualTo(payload(3));
+            assertThat(read(archive, "m4")).isEqualTo(payload(4));
+        }
+        assertThat(Files.size(older)).isEqualTo(size);
+    }
+
+    @Test
+    void dropsAnEntryWhoseChecksumNoLongerMatches() throws IOException {
+        try (TelemetryArchive archive = open(1 << 20)) {
+            append(archive, "m1", payload(1));
+        }
+        Path segment = segments().get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 0x55 }), Files.size(segment) - 3);
+        }
+
+        try (TelemetryArchive archive = open(1 << 20)) {
+            assertThat(read(archive, "m1")).isNull();
+        }
+    }
+
+    private TelemetryArchive open(long segmentBytes) {
+        return new TelemetryArchive(true, directory.toString(), segmentBytes);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static void append(TelemetryArchive archive, String matchId, byte[] payload) throws IOException {
+        try (TelemetryArchive.Writer writer = archive.writer(matchId)) {
+            writer.write(payload);
+            writer.commit();
+        }
+    }
+
+    private static byte[] read(TelemetryArchive archive, String matchId) throws IOException {
+        InputStream payload = archive.open(matchId);
+        if (payload == null) {
+            return null;
+        }
+        try (payload) {
+            return payload.readAllBytes();
+        }
+    }
+
+    private static byte[] payload(int seed) {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 50; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"_T\":\"LogPlayerPosition\",")
+                    .append("\"character\":{\"accountId\":\"account.").append(seed)
+                    .append("\",\"location\":{\"x\":").append(1000 * i).append("}}}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.pubg.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pubg.dto.TelemetryEvent;
+
+public class TelemetryParserTest {
+    private static final String PAYLOAD = """
+            [
+              {"_T": "LogPhaseChange", "_D": "2024-01-01T00:00:00.000Z", "phase": 1, "safeZoneRadius": 300.0},
+              {"_T": "LogPlayerPosition", "_D": "2024-01-01T00:00:01.000Z",
+               "character": {"accountId": "a", "location": {"x": 1, "y": 2, "z": 3}}},
+              {"_T": "LogPlayerPosition", "character": {"accountId": "b", "location": {"x": 4, "y": 5, "z": 6}},
+               "_D": "2024-01-01T00:00:02.000Z", "common": {"isGame": 1.0}},
+              {"_T": "LogItemThrow", "_D": "2024-01-01T00:00:03.000Z",
+               "character": {"accountId": "b", "location": {"x": 7, "y": 8, "z": 9}},
+               "item": {"subCategory": "Throwable"}},
+              {"_T": "LogItemThrow", "_D": "2024-01-01T00:00:04.000Z",
+               "character": {"accountId": "a", "location": {"x": 7, "y": 8, "z": 9}},
+               "item": {"subCategory": "Throwable"}},
+              {"_T": "LogPlayerAttack", "_D": "2024-01-01T00:00:05.000Z",
+               "attacker": {"accountId": "b", "location": {"x": 1, "y": 1, "z": 0}}},
+              {"_T": "LogPlayerTakeDamage", "_D": "2024-01-01T00:00:06.000Z",
+               "attacker": {"accountId": "b", "location": {"x": 1, "y": 1, "z": 0}},
+               "victim": {"accountId": "a", "location": {"x": 2, "y": 2, "z": 0}}, "damageTypeCategory": "Gun"}
+            ]
+            """;
+
+    @Test
+    void projectionDropsOnlyPositionsAndThrowsOfOtherPlayers() throws IOException {
+        TelemetryParser parser = new TelemetryParser();
+        List<TelemetryEvent> all = parser.parse(payload());
+        List<TelemetryEvent> projected = parser.parse(payload(), TelemetryProjection.of(List.of("a")));
+
+        assertThat(all).hasSize(7);
+        List<TelemetryEvent> expected = all.stream().filter(event -> {
+            TelemetryEvent.Actor character = event instanceof TelemetryEvent.Position position ? position.character()
+                    : event instanceof TelemetryEvent.ItemThrow itemThrow ? itemThrow.character() : null;
+            return character == null || character.id().equals("a");
+        }).toList();
+        assertThat(projected).hasSize(5).isEqualTo(expected);
+        assertThat(parser.parse(payload(), TelemetryProjection.ALL)).isEqualTo(all);
+    }
+
+    private static ByteArrayInputStream payload() {
+        return new ByteArrayInputStream(PAYLOAD.getBytes(StandardCharsets.UTF_8));
+    }
+}
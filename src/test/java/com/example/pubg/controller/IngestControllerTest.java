@@ -0,0 +1,67 @@
+package com.example.pubg.controller;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import com.example.pubg.dto.IngestJobStatus;
+import com.example.pubg.dto.IngestJobStatus.State;
+import com.example.pubg.service.IngestJobService;
+
+public class IngestControllerTest {
+    private final IngestJobService ingestJobService = mock(IngestJobService.class);
+    private final MockMvc mvc = MockMvcBuilders.standaloneSetup(new IngestController(ingestJobService)).build();
+
+    @Test
+    void acceptsASubmissionAndPointsAtItsStatus() throws Exception {
+        when(ingestJobService.submit(any())).thenReturn(job("job-1", State.QUEUED, null));
+
+        mvc.perform(post("/v1/ingest").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nickname\": \"player\", \"matchCount\": 5}"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/v1/ingest/job-1"))
+                .andExpect(jsonPath("$.jobId").value("job-1"))
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+    }
+
+    @Test
+    void rejectsAnInvalidSubmission() throws Exception {
+        mvc.perform(post("/v1/ingest").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nickname\": \"\", \"matchCount\": 5}"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(ingestJobService);
+    }
+
+    @Test
+    void reportsTheStatusOfAKnownJobAndNotFoundOtherwise() throws Exception {
+        when(ingestJobService.status("job-1")).thenReturn(Optional.of(job("job-1", State.FAILED, "boom")));
+        when(ingestJobService.status("gone")).thenReturn(Optional.empty());
+
+        mvc.perform(get("/v1/ingest/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.state").value("FAILED"))
+                .andExpect(jsonPath("$.error").value("boom"));
+        mvc.perform(get("/v1/ingest/gone"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static IngestJobStatus job(String jobId, State state, String error) {
+        return new IngestJobStatus(jobId, state, null, 0, 0, List.of(), error, null, Instant.EPOCH,
+                state == State.QUEUED ? null : Instant.EPOCH);
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.pubg.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
+import org.junit.jupiter.api.Test;
+
+public class FeatureAggregateTest {
+    private static final int[] METRICS = { MetricRegistry.phase(0, MetricRegistry.CENTER_BIAS),
+            MetricRegistry.phase(10, MetricRegistry.AVG_SPEED_MPS), MetricRegistry.TEAM_SPREAD_M,
+            MetricRegistry.DTK_CONV_RATE, MetricRegistry.FRAG_PER_10M, MetricRegistry.NADE_TO_DOWN_CHAIN_RATE };
+
+    @Test
+    void mergeIsAssociativeAndCommutativeWithExactMoments() {
+        Random random = new Random(7);
+        List<FeatureAggregate> matches = new ArrayList<>();
+        DescriptiveStatistics[] expected = new DescriptiveStatistics[MetricRegistry.SIZE];
+        for (int match = 0; match < 40; match++) {
+            MetricVector vector = new MetricVector();
+            for (int metric : METRICS) {
+                if (random.nextInt(3) == 0) {
+                    continue;
+                }
+                // quarter steps keep every partial sum exact, so any merge order must agree bit for bit
+                double value = (random.nextInt(801) - 400) / 4.0;
+                vector.set(metric, value);
+                if (expected[metric] == null) {
+                    expected[metric] = new DescriptiveStatistics();
+                }
+                expected[metric].addValue(value);
+            }
+            matches.add(new FeatureAggregate(vector));
+        }
+
+        FeatureAggregate forward = foldLeft(matches);
+        List<FeatureAggregate> reversed = new ArrayList<>(matches);
+        Collections.reverse(reversed);
+        FeatureAggregate backward = foldLeft(reversed);
+        Collections.shuffle(reversed, random);
+        FeatureAggregate tree = foldTree(reversed, 0, reversed.size());
+
+        for (int metric = 0; metric < MetricRegistry.SIZE; metric++) {
+            assertThat(forward.has(metric)).isEqualTo(expected[metric] != null);
+            assertThat(backward.stats(metric)).isEqualTo(forward.stats(metric));
+            assertThat(tree.stats(metric)).isEqualTo(forward.stats(metric));
+            if (expected[metric] == null) {
+                continue;
+            }
+            MetricStats stats = forward.stats(metric);
+            assertThat(stats.count()).isEqualTo(expected[metric].getN());
+            assertThat(stats.min()).isEqualTo(expected[metric].getMin());
+            assertThat(stats.max()).isEqualTo(expected[metric].getMax());
+            assertThat(forward.mean(metric)).isCloseTo(expected[metric].getMean(), within(1e-9));
+            assertThat(stats.variance()).isCloseTo(expected[metric].getPopulationVariance(), within(1e-9));
+        }
+    }
+
+    @Test
+    void mergingWithAnAggregateLackingAMetricKeepsItsMoments() {
+        MetricVector first = new MetricVector();
+        first.set(MetricRegistry.TEAM_SPREAD_M, 12.5);
+        MetricVector second = new MetricVector();
+        second.set(MetricRegistry.FRAG_PER_10M, -3);
+
+        FeatureAggregate merged = new FeatureAggregate(first).merge(new FeatureAggregate(second));
+        assertThat(merged.stats(MetricRegistry.TEAM_SPREAD_M)).isEqualTo(new MetricStats(1, 12.5, 156.25, 12.5, 12.5));
+        assertThat(merged.stats(MetricRegistry.FRAG_PER_10M)).isEqualTo(new MetricStats(1, -3, 9, -3, -3));
+        assertThat(merged.getCombatMetrics()).containsOnlyKeys("team_spread_m");
+        assertThat(merged.getGrenadeMetrics()).containsEntry("frag_per_10m", -3.0);
+    }
+
+    private static FeatureAggregate foldLeft(List<FeatureAggregate> aggregates) {
+        FeatureAggregate result = aggregates.get(0);
+        for (int i = 1; i < aggregates.size(); i++) {
+            result = result.merge(aggregates.get(i));
+        }
+        return result;
+    }
+
+    private static FeatureAggregate foldTree(List<FeatureAggregate> aggregates, int from, int to) {
+        if (to - from == 1) {
+            return aggregates.get(from);
+        }
+        int mid = (from + to) >>> 1;
+        return foldTree(aggregates, mid, to).merge(foldTree(aggregates, from, mid));
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.pubg.dto;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+public class MetricRegistryTest {
+
+    @Test
+    void indexesAndNamesStayWhereStoredDataExpectsThem() {
+        // appending metrics is fine; moving any of these breaks stored keys and cached aggregates
+        assertThat(MetricRegistry.phase(0, MetricRegistry.ENTER_DELAY_S)).isZero();
+        assertThat(MetricRegistry.phase(3, MetricRegistry.CENTER_BIAS)).isEqualTo(19);
+        assertThat(MetricRegistry.phase(15, MetricRegistry.BLUE_EXPOSURE_S_PHASE)).isEqualTo(95);
+        assertThat(MetricRegistry.TEAM_ANGLE_VAR_DEG).isEqualTo(96);
+        assertThat(MetricRegistry.DTK_CONV_RATE).isEqualTo(100);
+        assertThat(MetricRegistry.FRAG_PER_10M).isEqualTo(101);
+        assertThat(MetricRegistry.NADE_TO_DOWN_CHAIN_RATE).isEqualTo(107);
+        assertThat(MetricRegistry.SIZE).isEqualTo(108);
+
+        assertThat(MetricRegistry.name(19)).isEqualTo("phase3.center_bias");
+        assertThat(MetricRegistry.name(95)).isEqualTo("phase15.blue_exposure_s_phase");
+        assertThat(MetricRegistry.name(96)).isEqualTo("team_angle_var_deg");
+        assertThat(MetricRegistry.name(107)).isEqualTo("nade_to_down_chain_rate");
+
+        assertThat(MetricRegistry.family(95)).isEqualTo(MetricRegistry.Family.PHASE);
+        assertThat(MetricRegistry.family(96)).isEqualTo(MetricRegistry.Family.COMBAT);
+        assertThat(MetricRegistry.family(100)).isEqualTo(MetricRegistry.Family.COMBAT);
+        assertThat(MetricRegistry.family(101)).isEqualTo(MetricRegistry.Family.GRENADE);
+        assertThat(MetricRegistry.phase(16, MetricRegistry.CENTER_BIAS)).isEqualTo(-1);
+        assertThat(MetricRegistry.phase(-1, MetricRegistry.CENTER_BIAS)).isEqualTo(-1);
+
+        Set<String> names = new HashSet<>();
+        for (int i = 0; i < MetricRegistry.SIZE; i++) {
+            assertThat(names.add(MetricRegistry.name(i))).isTrue();
+        }
+    }
+
+    @Test
+    void presenceBitmapTracksIndexesAcrossWords() {
+        MetricVector vector = new MetricVector();
+        vector.set(63, 1);
+        vector.set(64, 2);
+        vector.set(MetricRegistry.SIZE - 1, 3);
+        assertThat(vector.has(0)).isFalse();
+        assertThat(vector.has(63)).isTrue();
+        assertThat(vector.has(MetricRegistry.SIZE - 1 - 64)).isFalse();
+        assertThat(vector.nextPresent(0)).isEqualTo(63);
+        assertThat(vector.nextPresent(64)).isEqualTo(64);
+        assertThat(vector.nextPresent(65)).isEqualTo(MetricRegistry.SIZE - 1);
+        assertThat(vector.nextPresent(MetricRegistry.SIZE)).isEqualTo(-1);
+
+        MetricVector other = new MetricVector();
+        other.set(0, 4);
+        other.set(MetricRegistry.TEAM_SPREAD_M, 5);
+        FeatureAggregate merged = new FeatureAggregate(vector).merge(new FeatureAggregate(other));
+        assertThat(merged.nextMetric(0)).isZero();
+        assertThat(merged.nextMetric(1)).isEqualTo(63);
+        assertThat(merged.nextMetric(64)).isEqualTo(64);
+        assertThat(merged.nextMetric(65)).isEqualTo(MetricRegistry.TEAM_SPREAD_M);
+        assertThat(merged.nextMetric(MetricRegistry.TEAM_SPREAD_M + 1)).isEqualTo(MetricRegistry.SIZE - 1);
+        // a bit past 63 must not alias the low word
+        assertThat(merged.has(MetricRegistry.TEAM_SPREAD_M - 64)).isFalse();
+        assertThat(merged.toString()).isEqualTo("FeatureAggregate{phase0.enter_delay_s=4.0 (n=1), "
+                + "phase10.avg_speed_mps=1.0 (n=1), phase10.entered_with_vehicle=2.0 (n=1), "
+                + "team_spread_m=5.0 (n=1), nade_to_down_chain_rate=3.0 (n=1)}");
+    }
+}
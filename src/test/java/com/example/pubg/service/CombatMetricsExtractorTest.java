@@ -0,0 +1,72 @@
+package com.example.pubg.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pubg.dto.FeatureAggregate;
+import com.example.pubg.dto.MatchMeta;
+import com.example.pubg.dto.MetricRegistry;
+import com.example.pubg.dto.TelemetryEvent;
+import com.example.pubg.dto.TelemetryEvent.Actor;
+
+public class CombatMetricsExtractorTest {
+    private static final MatchMeta META = new MatchMeta("match", "url", "squad", 1800);
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void computesClusterMetrics() {
+        FeatureAggregate features = compute(List.of(
+                // first fight, delivered out of order: the earliest hit comes last
+                new TelemetryEvent.Attack("LogPlayerAttack", T0 + 1000, actor("a", "Alpha", 0, 0),
+                        actor("v1", "Victim1", 30, 0)),
+                new TelemetryEvent.Damage("LogPlayerTakeDamage", T0 + 2000, actor("a", "Alpha", 0, 0),
+                        actor("v1", "Victim1", 30, 0), "Damage_Gun"),
+                new TelemetryEvent.Damage("LogPlayerTakeDamage", T0 + 500, actor("b", "Bravo", 10, 0),
+                        actor("v2", "Victim2", 10, 40), "Damage_Gun"),
+                // a down converted within ten seconds, then one that is not
+                new TelemetryEvent.KillOrDown("LogPlayerDowned", T0 + 100_000, actor("a", "Alpha", 500, 500),
+                        actor("v3", "Victim3", Float.NaN, Float.NaN), true),
+                new TelemetryEvent.KillOrDown("LogPlayerKill", T0 + 105_000, actor("a", "Alpha", 500, 500),
+                        actor("v3", "Victim3", Float.NaN, Float.NaN), false),
+                new TelemetryEvent.KillOrDown("LogPlayerDowned", T0 + 300_000, actor("a", "Alpha", 900, 900),
+                        actor("v4", "Victim4", Float.NaN, Float.NaN), true)));
+
+        // angles 90, 0, 0 degrees around a mean of 30
+        assertThat(features.mean(MetricRegistry.TEAM_ANGLE_VAR_DEG)).isCloseTo(Math.sqrt(1800), within(1e-9));
+        // attackers at x = 10, 0, 0 around a centre of 10 / 3
+        assertThat(features.mean(MetricRegistry.TEAM_SPREAD_M)).isCloseTo(40 / 9.0, within(1e-9));
+        assertThat(features.mean(MetricRegistry.FIRST_SHOT_DISTANCE_M)).isCloseTo(40, within(1e-9));
+        // v1 is hit twice and v2 once
+        assertThat(features.mean(MetricRegistry.SIMUL_FIRE_RATE)).isCloseTo(0.5, within(1e-9));
+        assertThat(features.mean(MetricRegistry.DTK_CONV_RATE)).isCloseTo(0.5, within(1e-9));
+    }
+
+    @Test
+    void keysSimultaneousFireVictimsByAccountId() {
+        // two players sharing a display name are different victims; one player is the same victim
+        // whatever name a row carries
+        FeatureAggregate features = compute(List.of(
+                new TelemetryEvent.Damage("LogPlayerTakeDamage", T0, actor("a", "Alpha", 0, 0),
+                        actor("v1", "Same", 30, 0), "Damage_Gun"),
+                new TelemetryEvent.Damage("LogPlayerTakeDamage", T0 + 1000, actor("a", "Alpha", 0, 0),
+                        actor("v2", "Same", 30, 10), "Damage_Gun"),
+                new TelemetryEvent.Damage("LogPlayerTakeDamage", T0 + 2000, actor("a", "Alpha", 0, 0),
+                        actor("v3", "Renamed", 30, 20), "Damage_Gun"),
+                new TelemetryEvent.Damage("LogPlayerTakeDamage", T0 + 3000, actor("a", "Alpha", 0, 0),
+                        actor("v3", "Original", 30, 20), "Damage_Gun")));
+
+        assertThat(features.mean(MetricRegistry.SIMUL_FIRE_RATE)).isCloseTo(1 / 3.0, within(1e-9));
+    }
+
+    private static FeatureAggregate compute(List<TelemetryEvent> events) {
+        return new FeatureService().computeFeatures("a", META, events);
+    }
+
+    private static Actor actor(String accountId, String name, float x, float y) {
+        return new Actor(accountId, name, x, y, 0, false);
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.pubg.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.pubg.dto.IngestJobStatus;
+import com.example.pubg.dto.IngestJobStatus.State;
+import com.example.pubg.dto.IngestRequest;
+import com.example.pubg.dto.IngestResponse;
+
+public class IngestJobServiceTest {
+    private final IngestService ingestService = mock(IngestService.class);
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+
+    @Test
+    void reportsProgressWhileRunningAndTheResultOnceDone() throws Exception {
+        CountDownLatch matchesDone = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(ingestService.ingestRecentMatches(any(), any())).thenAnswer(invocation -> {
+            IngestProgress progress = invocation.getArgument(1);
+            progress.started("account.1", 3);
+            progress.matchProcessed("m1");
+            progress.matchFailed("m2");
+            matchesDone.countDown();
+            release.await();
+            return new IngestResponse("account.1", List.of("m1", "m3"), List.of("m2"));
+        });
+        IngestJobService service = new IngestJobService(ingestService, jobExecutor, 60);
+
+        IngestJobStatus queued = service.submit(request("player"));
+        assertThat(queued.getJobId()).isNotBlank();
+        assertThat(queued.getState()).isIn(State.QUEUED, State.RUNNING);
+
+        assertThat(matchesDone.await(5, TimeUnit.SECONDS)).isTrue();
+        IngestJobStatus running = service.status(queued.getJobId()).orElseThrow();
+        assertThat(running.getState()).isEqualTo(State.RUNNING);
+        assertThat(running.getAccountId()).isEqualTo("account.1");
+        assertThat(running.getTotalMatches()).isEqualTo(3);
+        assertThat(running.getProcessedMatches()).isEqualTo(1);
+        assertThat(running.getFailedMatchIds()).containsExactly("m2");
+        assertThat(running.getFinishedAt()).isNull();
+
+        release.countDown();
+        IngestJobStatus done = awaitFinished(service, queued.getJobId());
+        assertThat(done.getState()).isEqualTo(State.SUCCEEDED);
+        assertThat(done.getResult().getMatchIds()).containsExactly("m1", "m3");
+        assertThat(done.getError()).isNull();
+        assertThat(service.status("unknown")).isEmpty();
+    }
+
+    @Test
+    void reportsAFailedIngest() throws Exception {
+        when(ingestService.ingestRecentMatches(any(), any()))
+                .thenThrow(new IllegalStateException("player not found"));
+        IngestJobService service = new IngestJobService(ingestService, jobExecutor, 60);
+
+        IngestJobStatus done = awaitFinished(service, service.submit(request("nobody")).getJobId());
+        assertThat(done.getState()).isEqualTo(State.FAILED);
+        assertThat(done.getError()).isEqualTo("player not found");
+        assertThat(done.getResult()).isNull();
+    }
+
+    @Test
+    void dropsFinishedJobsOnceTheirRetentionHasPassed() throws Exception {
+        when(ingestService.ingestRecentMatches(any(), any()))
+                .thenReturn(new IngestResponse("account.1", List.of(), List.of()));
+        IngestJobService service = new IngestJobService(ingestService, jobExecutor, 0);
+
+        String polled = service.submit(request("first")).getJobId();
+        String swept = service.submit(request("second")).getJobId();
+        jobExecutor.shutdown();
+        assertThat(jobExecutor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(5);
+
+        // a status poll drops an expired job on its own, and the sweep drops the rest without any poll
+        assertThat(service.status(polled)).isEmpty();
+        service.evictExpired();
+        assertThat(service.status(swept)).isEmpty();
+    }
+
+    @Test
+    void keepsJobsThatHaveNotFinished() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        when(ingestService.ingestRecentMatches(any(), any())).thenAnswer(invocation -> {
+            release.await();
+            return new IngestResponse("account.1", List.of(), List.of());
+        });
+        IngestJobService service = new IngestJobService(ingestService, jobExecutor, 0);
+
+        String jobId = service.submit(request("player")).getJobId();
+        service.evictExpired();
+        assertThat(service.status(jobId)).isPresent();
+        release.countDown();
+    }
+
+    private static IngestRequest request(String nickname) {
+        IngestRequest request = new IngestRequest();
+        request.setNickname(nickname);
+        return request;
+    }
+
+    private static IngestJobStatus awaitFinished(IngestJobService service, String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        IngestJobStatus status = service.status(jobId).orElseThrow();
+        while (status.getFinishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+            status = service.status(jobId).orElseThrow();
+        }
+        return status;
+    }
+}
@@ -4,14 +4,17 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,15 +31,15 @@ import org.testcontainers.junit.jupiter.Testcontainers;
 
 import com.example.pubg.client.PubgApiClient;
 import com.example.pubg.client.TelemetryClient;
+import com.example.pubg.client.TelemetryParser;
+import com.example.pubg.client.TelemetryProjection;
 import com.example.pubg.dto.BenchmarkRequest;
 import com.example.pubg.dto.IngestRequest;
 import com.example.pubg.dto.MatchMeta;
 import com.example.pubg.dto.PlayerFeedbackResponse;
+import com.example.pubg.dto.TelemetryEvent;
 import com.example.pubg.repository.ProDistroRepository;
 
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
 @SpringBootTest
 @ActiveProfiles("test")
 @Testcontainers
@@ -69,7 +72,7 @@ public class PipelineIntegrationTest {
     @Autowired
     private ProDistroRepository proDistroRepository;
 
-    private List<Map<String, Object>> telemetry;
+    private List<TelemetryEvent> telemetry;
 
     @DynamicPropertySource
     static void configureProps(DynamicPropertyRegistry registry) {
@@ -82,10 +85,10 @@ public class PipelineIntegrationTest {
 
     @BeforeEach
     void setup() throws IOException {
-        ObjectMapper mapper = new ObjectMapper();
         Path path = Path.of("src/test/resources/fixtures/telemetry_sample.json");
-        telemetry = mapper.readValue(Files.readString(path), new TypeReference<>() {
-        });
+        try (InputStream in = Files.newInputStream(path)) {
+            telemetry = new TelemetryParser().parse(in);
+        }
 
         when(pubgApiClient.findAccountId("Test")).thenReturn("test-account");
         when(pubgApiClient.fetchRecentMatches(anyString(), anyInt()))
@@ -94,7 +97,15 @@ public class PipelineIntegrationTest {
                 .thenReturn(new MatchMeta("match1", "url1", "squad", 600));
         when(pubgApiClient.fetchLeaderboardAccountIds(anyString(), anyInt()))
                 .thenReturn(List.of("test-account"));
-        when(telemetryClient.fetchTelemetry("url1")).thenReturn(telemetry);
+        when(telemetryClient.fetchTelemetry(new MatchMeta("match1", "url1", "squad", 600),
+                TelemetryProjection.of(List.of("test-account")))).thenReturn(telemetry);
+        when(telemetryClient.streamTelemetry(eq(new MatchMeta("match1", "url1", "squad", 600)),
+                eq(TelemetryProjection.of(List.of("test-account"))), any())).thenAnswer(invocation -> {
+                    Supplier<Consumer<TelemetryEvent>> sinks = invocation.getArgument(2);
+                    Consumer<TelemetryEvent> sink = sinks.get();
+                    telemetry.forEach(sink);
+                    return sink;
+                });
     }
 
     @Test
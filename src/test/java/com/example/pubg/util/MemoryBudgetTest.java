@@ -0,0 +1,133 @@
+package com.example.pubg.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class MemoryBudgetTest {
+
+    @Test
+    void smallReservationWaitsBehindAnEarlierLargeOne() throws Exception {
+        MemoryBudget budget = new MemoryBudget(100);
+        MemoryBudget.Lease held = budget.acquire(50, Duration.ZERO);
+        List<String> order = new CopyOnWriteArrayList<>();
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<MemoryBudget.Lease> large = pool.submit(() -> record(budget, 60, "large", order));
+        awaitWaiting(budget, 1);
+        // 10 bytes would fit right now, but the large caller is first in line
+        Future<MemoryBudget.Lease> small = pool.submit(() -> record(budget, 10, "small", order));
+        awaitWaiting(budget, 2);
+        Thread.sleep(50);
+        assertThat(order).isEmpty();
+
+        held.close();
+        assertThat(large.get(5, TimeUnit.SECONDS)).isNotNull();
+        assertThat(small.get(5, TimeUnit.SECONDS)).isNotNull();
+        pool.shutdown();
+
+        assertThat(order).containsExactly("large", "small");
+        assertThat(budget.stats().usedBytes()).isEqualTo(70);
+        assertThat(budget.stats().waiting()).isZero();
+    }
+
+    @Test
+    void timedOutCallerLeavesTheQueueAndWakesTheNextOne() throws Exception {
+        MemoryBudget budget = new MemoryBudget(100);
+        budget.acquire(50, Duration.ZERO);
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<MemoryBudget.Lease> large = pool.submit(() -> budget.acquire(60, Duration.ofMillis(100)));
+        awaitWaiting(budget, 1);
+        Future<MemoryBudget.Lease> small = pool.submit(() -> budget.acquire(10, Duration.ofSeconds(30)));
+
+        assertThat(large.get(5, TimeUnit.SECONDS)).isNull();
+        // nothing was released, so only the timed-out caller leaving the queue can let this one in
+        assertThat(small.get(5, TimeUnit.SECONDS)).isNotNull();
+        pool.shutdown();
+
+        MemoryBudget.Stats stats = budget.stats();
+        assertThat(stats.timedOut()).isEqualTo(1);
+        assertThat(stats.waiting()).isZero();
+        assertThat(stats.usedBytes()).isEqualTo(60);
+    }
+
+    @Test
+    void shrinkingALeaseAdmitsAWaiter() throws Exception {
+        MemoryBudget budget = new MemoryBudget(100);
+        MemoryBudget.Lease lease = budget.acquire(100, Duration.ZERO);
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<MemoryBudget.Lease> waiter = pool.submit(() -> budget.acquire(40, Duration.ofSeconds(30)));
+        awaitWaiting(budget, 1);
+        lease.resize(60);
+        assertThat(waiter.get(5, TimeUnit.SECONDS)).isNotNull();
+        pool.shutdown();
+        assertThat(budget.stats().usedBytes()).isEqualTo(100);
+
+        lease.close();
+        lease.resize(80);
+        assertThat(budget.stats().usedBytes()).isEqualTo(40);
+    }
+
+    @Test
+    void clampsReservationsToTheBudget() throws Exception {
+        MemoryBudget budget = new MemoryBudget(100);
+        MemoryBudget.Lease oversized = budget.acquire(500, Duration.ZERO);
+        assertThat(oversized).isNotNull();
+        assertThat(budget.stats().usedBytes()).isEqualTo(100);
+        assertThat(budget.acquire(1, Duration.ofMillis(20))).isNull();
+
+        oversized.resize(1_000);
+        assertThat(budget.stats().usedBytes()).isEqualTo(100);
+        assertThat(budget.stats().peakBytes()).isEqualTo(100);
+        oversized.close();
+        oversized.close();
+        assertThat(budget.stats().usedBytes()).isZero();
+
+        assertThat(budget.acquire(-5, Duration.ZERO)).isNotNull();
+        assertThat(budget.stats().usedBytes()).isZero();
+    }
+
+    @Test
+    void tryAcquireNeverJumpsTheQueue() throws Exception {
+        MemoryBudget budget = new MemoryBudget(100);
+        MemoryBudget.Lease held = budget.tryAcquire(50);
+        assertThat(held).isNotNull();
+        assertThat(budget.tryAcquire(60)).isNull();
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<MemoryBudget.Lease> queued = pool.submit(() -> budget.acquire(60, Duration.ofSeconds(30)));
+        awaitWaiting(budget, 1);
+        // 10 bytes fit, but someone is already waiting
+        assertThat(budget.tryAcquire(10)).isNull();
+        held.close();
+        assertThat(queued.get(5, TimeUnit.SECONDS)).isNotNull();
+        pool.shutdown();
+
+        assertThat(budget.tryAcquire(40)).isNotNull();
+        assertThat(budget.stats().timedOut()).isZero();
+        assertThat(budget.stats().usedBytes()).isEqualTo(100);
+    }
+
+    private static MemoryBudget.Lease record(MemoryBudget budget, long bytes, String name, List<String> order)
+            throws InterruptedException {
+        MemoryBudget.Lease lease = budget.acquire(bytes, Duration.ofSeconds(30));
+        order.add(name);
+        return lease;
+    }
+
+    private static void awaitWaiting(MemoryBudget budget, int waiting) throws InterruptedException {
+        while (budget.stats().waiting() < waiting) {
+            Thread.sleep(1);
+        }
+    }
+}
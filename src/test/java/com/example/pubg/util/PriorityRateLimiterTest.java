@@ -0,0 +1,152 @@
+package com.example.pubg.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class PriorityRateLimiterTest {
+
+    @Test
+    void splitsPermitsByShareWhileBothClassesWait() throws Exception {
+        // every booking takes 1ms, so callers always queue behind the one holding the turn
+        SlowBucket bucket = new SlowBucket(1_000_000, 1);
+        PriorityRateLimiter limiter = new PriorityRateLimiter(bucket, 0.75, 0);
+        AtomicInteger interactive = new AtomicInteger();
+        AtomicInteger background = new AtomicInteger();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        List<Future<?>> callers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            callers.add(pool.submit(() -> loop(limiter, RequestPriority.INTERACTIVE, interactive, running)));
+            callers.add(pool.submit(() -> loop(limiter, RequestPriority.BACKGROUND, background, running)));
+        }
+        Thread.sleep(600);
+        running.set(false);
+        for (Future<?> caller : callers) {
+            caller.get(5, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        double total = interactive.get() + background.get();
+        assertThat(total).isGreaterThan(100);
+        assertThat(interactive.get() / total).isBetween(0.70, 0.80);
+    }
+
+    @Test
+    void timedOutBackgroundCallerHandsBackItsCeilingPermit() throws Exception {
+        // ceiling at half of 10/s: one background permit every 200ms
+        SlowBucket bucket = new SlowBucket(10, 0);
+        PriorityRateLimiter limiter = new PriorityRateLimiter(bucket, 0.8, 0.5);
+        CountDownLatch release = new CountDownLatch(1);
+        bucket.hold = release;
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<Boolean> holder = pool.submit(() -> limiter.acquire(RequestPriority.INTERACTIVE, Duration.ofSeconds(5)));
+        while (bucket.calls.get() == 0) {
+            Thread.sleep(1);
+        }
+        // the interactive caller holds the turn, so this one times out in the queue
+        assertThat(limiter.acquire(RequestPriority.BACKGROUND, Duration.ofMillis(50))).isFalse();
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+
+        // without the refund the next ceiling slot would be 150ms away
+        assertThat(limiter.acquire(RequestPriority.BACKGROUND, Duration.ofMillis(20))).isTrue();
+        assertThat(limiter.stats().get(RequestPriority.BACKGROUND).timedOut()).isEqualTo(1);
+        assertThat(limiter.stats().get(RequestPriority.BACKGROUND).acquired()).isEqualTo(1);
+    }
+
+    @Test
+    void interactiveCallerTimesOutWhileTheTurnIsHeld() throws Exception {
+        SlowBucket bucket = new SlowBucket(10, 0);
+        PriorityRateLimiter limiter = new PriorityRateLimiter(bucket, 0.8, 0.25);
+        CountDownLatch release = new CountDownLatch(1);
+        bucket.hold = release;
+
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<Boolean> holder = pool.submit(() -> limiter.acquire(RequestPriority.INTERACTIVE, Duration.ofSeconds(5)));
+        while (bucket.calls.get() == 0) {
+            Thread.sleep(1);
+        }
+        assertThat(limiter.acquire(RequestPriority.INTERACTIVE, Duration.ofMillis(30))).isFalse();
+        release.countDown();
+        assertThat(holder.get(5, TimeUnit.SECONDS)).isTrue();
+        pool.shutdown();
+
+        PriorityRateLimiter.ClassStats stats = limiter.stats().get(RequestPriority.INTERACTIVE);
+        assertThat(stats.timedOut()).isEqualTo(1);
+        assertThat(stats.acquired()).isEqualTo(1);
+        assertThat(stats.queueDepth()).isZero();
+    }
+
+    private static void loop(PriorityRateLimiter limiter, RequestPriority priority, AtomicInteger granted,
+            AtomicBoolean running) {
+        try {
+            while (running.get()) {
+                if (limiter.acquire(priority, Duration.ofSeconds(5))) {
+                    granted.incrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Grants every permit after {@code delayMillis}, or once {@code hold} is released.
+     */
+    private static final class SlowBucket implements RateLimiter {
+        private final double rate;
+        private final long delayMillis;
+        private final AtomicInteger calls = new AtomicInteger();
+        private volatile CountDownLatch hold;
+
+        private SlowBucket(double rate, long delayMillis) {
+            this.rate = rate;
+            this.delayMillis = delayMillis;
+        }
+
+        @Override
+        public boolean acquire(Duration maxWait) throws InterruptedException {
+            calls.incrementAndGet();
+            CountDownLatch latch = hold;
+            if (latch != null) {
+                latch.await();
+                hold = null;
+            }
+            Thread.sleep(delayMillis);
+            return true;
+        }
+
+        @Override
+        public void setRate(double permitsPerSecond) {
+        }
+
+        @Override
+        public double rate() {
+            return rate;
+        }
+
+        @Override
+        public void pauseFor(Duration pause) {
+        }
+
+        @Override
+        public Stats stats() {
+            return new Stats("test", rate, 0, 0, 0, 0);
+        }
+    }
+}
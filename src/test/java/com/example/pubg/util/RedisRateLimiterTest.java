@@ -0,0 +1,70 @@
+package com.example.pubg.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+@Testcontainers
+public class RedisRateLimiterTest {
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>("redis:7").withExposedPorts(6379);
+
+    private LettuceConnectionFactory connectionFactory;
+
+    @AfterEach
+    void tearDown() {
+        if (connectionFactory != null) {
+            connectionFactory.destroy();
+        }
+    }
+
+    @Test
+    void instancesShareOneBucket() throws InterruptedException {
+        StringRedisTemplate template = template(redis.getHost(), redis.getMappedPort(6379));
+        RedisRateLimiter first = new RedisRateLimiter(template, "test:shared", 10, 1, 1.0);
+        RedisRateLimiter second = new RedisRateLimiter(template, "test:shared", 10, 1, 1.0);
+
+        assertThat(first.acquire(Duration.ZERO)).isTrue();
+        // the slot 100ms out is already taken by the first instance
+        assertThat(second.acquire(Duration.ofMillis(20))).isFalse();
+        assertThat(second.acquire(Duration.ofMillis(500))).isTrue();
+        assertThat(second.stats().timedOut()).isEqualTo(1);
+    }
+
+    @Test
+    void pauseAppliesToEveryInstance() throws InterruptedException {
+        StringRedisTemplate template = template(redis.getHost(), redis.getMappedPort(6379));
+        RedisRateLimiter first = new RedisRateLimiter(template, "test:pause", 100, 1, 1.0);
+        RedisRateLimiter second = new RedisRateLimiter(template, "test:pause", 100, 1, 1.0);
+
+        first.pauseFor(Duration.ofSeconds(2));
+        assertThat(second.acquire(Duration.ofMillis(500))).isFalse();
+    }
+
+    @Test
+    void fallsBackToLocalLimiterWhenRedisIsDown() throws InterruptedException {
+        RedisRateLimiter limiter = new RedisRateLimiter(template("localhost", 1), "test:down", 10, 1, 0.5);
+
+        assertThat(limiter.acquire(Duration.ZERO)).isTrue();
+        assertThat(limiter.acquire(Duration.ofMillis(50))).isFalse();
+        assertThat(limiter.stats().backend()).isEqualTo("redis (local fallback)");
+    }
+
+    private StringRedisTemplate template(String host, int port) {
+        connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port),
+                LettuceClientConfiguration.builder().commandTimeout(Duration.ofSeconds(1)).build());
+        connectionFactory.afterPropertiesSet();
+        return new StringRedisTemplate(connectionFactory);
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.pubg.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.pubg.client.TelemetryParser;
+import com.example.pubg.dto.TelemetryEvent;
+import com.example.pubg.dto.TelemetryEvent.Actor;
+
+public class TelemetryCodecTest {
+
+    @Test
+    void roundTripsTheFixture() throws IOException {
+        List<TelemetryEvent> events;
+        try (InputStream in = getClass().getResourceAsStream("/fixtures/telemetry_sample.json")) {
+            events = new TelemetryParser().parse(in);
+        }
+
+        assertThat(events).isNotEmpty();
+        assertThat(TelemetryCodec.decode(TelemetryCodec.encode(events))).isEqualTo(events);
+    }
+
+    @Test
+    void roundTripsAnEmptyList() {
+        assertThat(TelemetryCodec.decode(TelemetryCodec.encode(List.of()))).isEmpty();
+    }
+
+    @Test
+    void roundTripsRandomEvents() {
+        // null actors and strings, NaN and extreme coordinates, out-of-order timestamps and far more
+        // distinct strings and actors than the encoder's initial tables hold
+        List<TelemetryEvent> events = randomEvents(new Random(42), 20_000, 500);
+
+        assertThat(TelemetryCodec.decode(TelemetryCodec.encode(events))).isEqualTo(events);
+    }
+
+    @Test
+    void decodesFromTheBufferPosition() {
+        List<TelemetryEvent> events = randomEvents(new Random(7), 200, 10);
+        byte[] encoded = TelemetryCodec.encode(events);
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 16);
+        buffer.position(9);
+        buffer.put(encoded);
+        buffer.position(9).limit(9 + encoded.length);
+
+        assertThat(TelemetryCodec.decode(buffer.slice())).isEqualTo(events);
+    }
+
+    @Test
+    void rejectsForeignAndTruncatedBlocks() {
+        byte[] encoded = TelemetryCodec.encode(randomEvents(new Random(3), 500, 20));
+
+        assertThatThrownBy(() -> TelemetryCodec.decode(new byte[] { 1, 2, 3 }))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> TelemetryCodec.decode(Arrays.copyOf(encoded, encoded.length / 2)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<TelemetryEvent> randomEvents(Random random, int count, int players) {
+        List<TelemetryEvent> events = new ArrayList<>(count);
+        long timestamp = 1_700_000_000_000L;
+        for (int i = 0; i < count; i++) {
+            timestamp += random.nextInt(2_000) - 500;
+            String type = "LogType" + random.nextInt(80);
+            switch (random.nextInt(6)) {
+                case 0 -> events.add(new TelemetryEvent.Position(type, timestamp, actor(random, players)));
+                case 1 -> events.add(new TelemetryEvent.PhaseChange(type, timestamp, random.nextInt(20) - 2,
+                        coordinate(random), coordinate(random), coordinate(random)));
+                case 2 -> events.add(new TelemetryEvent.ItemThrow(type, timestamp, actor(random, players),
+                        string(random, "Item_Weapon_", 100)));
+                case 3 -> events.add(new TelemetryEvent.Attack(type, timestamp, actor(random, players),
+                        actor(random, players)));
+                case 4 -> events.add(new TelemetryEvent.Damage(type, timestamp, actor(random, players),
+                        actor(random, players), string(random, "Damage_", 100)));
+                default -> events.add(new TelemetryEvent.KillOrDown(type, timestamp, actor(random, players),
+                        actor(random, players), random.nextBoolean()));
+            }
+        }
+        return events;
+    }
+
+    private static Actor actor(Random random, int players) {
+        if (random.nextInt(10) == 0) {
+            return null;
+        }
+        int player = random.nextInt(players);
+        String accountId = random.nextInt(8) == 0 ? null : "account.player" + player;
+        String name = random.nextInt(8) == 0 ? null : "Player" + player;
+        return new Actor(accountId, name, coordinate(random), coordinate(random), coordinate(random),
+                random.nextBoolean());
+    }
+
+    private static float coordinate(Random random) {
+        return switch (random.nextInt(20)) {
+            case 0 -> Float.NaN;
+            case 1 -> -random.nextFloat() * 1e6f;
+            case 2 -> Float.MAX_VALUE;
+            default -> random.nextFloat() * 816_000f;
+        };
+    }
+
+    private static String string(Random random, String prefix, int distinct) {
+        return random.nextInt(10) == 0 ? null : prefix + random.nextInt(distinct);
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.pubg.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+public class TelemetryTimeTest {
+
+    @Test
+    void decodesTelemetryTimestampsLikeInstantParse() {
+        for (String raw : new String[] { "2023-10-10T00:03:25Z", "2023-10-10T00:03:25.123Z", "2024-02-29T23:59:59.9Z",
+                "1999-12-31T12:00:00.1234567Z", "1970-01-01T00:00:00.000Z" }) {
+            assertThat(TelemetryTime.parseEpochMillis(raw)).as(raw).isEqualTo(Instant.parse(raw).toEpochMilli());
+        }
+    }
+
+    @Test
+    void acceptsExplicitOffsets() {
+        assertThat(TelemetryTime.parseEpochMillis("2023-10-10T09:03:25.5+09:00"))
+                .isEqualTo(Instant.parse("2023-10-10T00:03:25.500Z").toEpochMilli());
+    }
+
+    @Test
+    void rejectsMalformedTimestamps() {
+        for (String raw : new String[] { "", "not-a-date", "2023-02-30T00:00:00Z", "2023-10-10 00:03:25Z",
+                "2023-10-10T24:00:00Z", "2023-10-10T00:03:25.1234567890Z" }) {
+            assertThat(TelemetryTime.parseEpochMillis(raw)).as(raw).isEqualTo(TelemetryTime.INVALID);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.pubg.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+public class TieredCacheTest {
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        TieredCache cache = new TieredCache("test", Caffeine.newBuilder().build(), new ConcurrentMapCache("test"));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return cache.get("key", () -> {
+                    loads.incrementAndGet();
+                    Thread.sleep(100);
+                    return "value";
+                });
+            }));
+        }
+        start.countDown();
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        }
+        pool.shutdown();
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.get("key", () -> "reloaded")).isEqualTo("value");
+    }
+
+    @Test
+    void promotesRemoteHitsToTheHeapTier() {
+        ConcurrentMapCache remote = new ConcurrentMapCache("test");
+        remote.put("key", "value");
+        TieredCache cache = new TieredCache("test", Caffeine.newBuilder().build(), remote);
+
+        assertThat(cache.get("key", () -> "loaded")).isEqualTo("value");
+        assertThat(cache.get("key", String.class)).isEqualTo("value");
+        assertThat(cache.stats().remoteHits()).isEqualTo(1);
+        assertThat(cache.stats().localHits()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.pubg.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.Test;
+
+public class TokenBucketRateLimiterTest {
+
+    @Test
+    void burstOfOneHandsOutASinglePermitBackToBack() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 1);
+
+        assertThat(limiter.acquire(Duration.ZERO)).isTrue();
+        assertThat(limiter.acquire(Duration.ofMillis(100))).isFalse();
+    }
+
+    @Test
+    void handsOutTheConfiguredBurstThenPaces() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(1, 3);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.acquire(Duration.ZERO)).as("permit %d", i).isTrue();
+        }
+        assertThat(limiter.acquire(Duration.ofMillis(100))).isFalse();
+        assertThat(limiter.stats().acquired()).isEqualTo(3);
+        assertThat(limiter.stats().timedOut()).isEqualTo(1);
+    }
+
+    @Test
+    void spacesPermitsOneIntervalApart() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(20, 1);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.acquire(Duration.ofSeconds(1))).isTrue();
+        }
+        // four intervals of 50ms after the first permit
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(195));
+    }
+
+    @Test
+    void pauseDropsStoredBurst() throws InterruptedException {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(100, 5);
+
+        limiter.pauseFor(Duration.ofMillis(200));
+        assertThat(limiter.acquire(Duration.ofMillis(50))).isFalse();
+        assertThat(limiter.acquire(Duration.ofMillis(500))).isTrue();
+        assertThat(limiter.acquire(Duration.ofMillis(1))).isFalse();
+    }
+}